@@ -0,0 +1,75 @@
+package com.example.se_track_concert.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH json result with a stored baseline and exits with status 1 when a score is worse than the baseline
+ * by more than the threshold. Throughput scores are worse when lower, all other modes when higher.
+ * Arguments: baseline file, result file, threshold in percent (default 10)
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparison <baseline.json> <result.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> result = read(new File(args[1]));
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode current = entry.getValue();
+            JsonNode previous = baseline.get(entry.getKey());
+            double score = current.path("primaryMetric").path("score").asDouble();
+            String unit = current.path("primaryMetric").path("scoreUnit").asText();
+            if (previous == null) {
+                System.out.printf("NEW        %-90s %12.3f %s%n", entry.getKey(), score, unit);
+                continue;
+            }
+            double baselineScore = previous.path("primaryMetric").path("score").asDouble();
+            double change = (score - baselineScore) / baselineScore * 100;
+            double worse = "thrpt".equals(current.path("mode").asText()) ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %-90s %12.3f %s (%+.1f%%)%n", regressed ? "REGRESSED" : "OK",
+                    entry.getKey(), score, unit, change);
+        }
+        System.out.printf("%d of %d benchmarks regressed more than %.1f%%%n", regressions, result.size(), threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param file JMH result in json format
+     * @return results by benchmark name, mode and parameters
+     */
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode benchmark : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = benchmark.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            results.put(benchmark.path("benchmark").asText() + " " + benchmark.path("mode").asText()
+                    + (params.isEmpty() ? "" : " " + params), benchmark);
+        }
+        return results;
+    }
+}
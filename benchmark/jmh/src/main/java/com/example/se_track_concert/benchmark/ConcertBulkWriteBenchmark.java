@@ -0,0 +1,138 @@
+package com.example.se_track_concert.benchmark;
+
+import com.example.se_track_concert.SeTrackConcertApplication;
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.repository.ConcertRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second when writing 10k concerts in one transaction. "per-row" flushes after every concert, which is what
+ * IDENTITY ids forced on every insert: one statement and round trip per row. "batched" is
+ * {@link ConcertRepository#writeAll(List)}, sending the statements in JDBC batches now that ids come from a pooled
+ * sequence
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ConcertBulkWriteBenchmark.ROWS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcertBulkWriteBenchmark {
+
+    static final int ROWS = 10_000;
+    private static final String INSERTED_STAGE = "benchmark insert";
+
+    @Param({"h2", "postgres"})
+    public String database;
+
+    @Param({"per-row", "batched"})
+    public String write;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ConcertRepository concertRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private List<Concert> existing;
+    private List<Concert> concerts;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> args = new ArrayList<>(List.of("--concert.invalidation.enabled=false", "--concert.grpc.enabled=false",
+                "--logging.level.root=warn"));
+        if ("postgres".equals(this.database)) {
+            this.postgres = EmbeddedPostgres.start();
+            args.add("--spring.datasource.url=" + this.postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+            args.add("--spring.datasource.username=postgres");
+            args.add("--spring.datasource.password=postgres");
+        } else {
+            args.add("--spring.profiles.active=test");
+        }
+        this.context = new SpringApplicationBuilder(SeTrackConcertApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        this.concertRepository = this.context.getBean(ConcertRepository.class);
+        this.entityManager = this.context.getBean(EntityManager.class);
+        this.transactionTemplate = new TransactionTemplate(this.context.getBean(PlatformTransactionManager.class));
+        this.jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        this.existing = generate("stage");
+        this.concertRepository.writeAll(this.existing);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.context.close();
+        if (this.postgres != null) {
+            this.postgres.close();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void nextRound() {
+        this.round++;
+        this.concerts = generate(INSERTED_STAGE);
+        for (Concert concert : this.existing) {
+            concert.setStage("stage " + this.round);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInserted() {
+        this.jdbcTemplate.update("delete from concert where stage = ?", INSERTED_STAGE);
+    }
+
+    @Benchmark
+    public void insert() {
+        this.write(this.concerts);
+    }
+
+    @Benchmark
+    public void update() {
+        this.write(this.existing);
+    }
+
+    private void write(List<Concert> concerts) {
+        if (this.write.equals("batched")) {
+            this.concertRepository.writeAll(concerts);
+            return;
+        }
+        this.transactionTemplate.executeWithoutResult(status -> {
+            for (Concert concert : concerts) {
+                if (concert.getId() == null) {
+                    this.entityManager.persist(concert);
+                } else {
+                    this.entityManager.merge(concert);
+                }
+                this.entityManager.flush();
+            }
+            this.entityManager.clear();
+        });
+    }
+
+    private static List<Concert> generate(String stage) {
+        List<Concert> concerts = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            concerts.add(new Concert(1 + i % 1000, LocalDate.of(2020, 1, 1).plusDays(i % 1500), stage,
+                    LocalTime.of(12 + i % 10, 0), LocalTime.of(13 + i % 10, 0)));
+        }
+        return concerts;
+    }
+}
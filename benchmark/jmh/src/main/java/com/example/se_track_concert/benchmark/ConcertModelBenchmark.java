@@ -0,0 +1,64 @@
+package com.example.se_track_concert.benchmark;
+
+import com.example.se_track_concert.model.Concert;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * hashCode and equals of Concert, which the caches and the bulk insert rely on
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcertModelBenchmark {
+
+    private Concert concert;
+    private Concert equalConcert;
+    private Concert otherConcert;
+    private Concert[] concerts;
+
+    @Setup
+    public void setUp() {
+        this.concert = new Concert(1, LocalDate.of(2022, 7, 1), "Main Arena", LocalTime.of(20, 0), LocalTime.of(21, 0));
+        this.equalConcert = new Concert(1, LocalDate.of(2022, 7, 1), "Main Arena", LocalTime.of(20, 0), LocalTime.of(21, 0));
+        this.otherConcert = new Concert(1, LocalDate.of(2022, 7, 1), "Main Arena", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        this.concerts = new Concert[1000];
+        for (int i = 0; i < this.concerts.length; i++) {
+            this.concerts[i] = new Concert(i, LocalDate.of(2022, 7, 1).plusDays(i % 5), "Stage " + i % 20,
+                    LocalTime.of(12 + i % 10, 0), LocalTime.of(13 + i % 10, 0));
+        }
+    }
+
+    @Benchmark
+    public int hashCodeOfConcert() {
+        return this.concert.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsEqualConcert() {
+        return this.concert.equals(this.equalConcert);
+    }
+
+    @Benchmark
+    public boolean equalsOtherConcert() {
+        return this.concert.equals(this.otherConcert);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Set<Concert> hashSetOf1000() {
+        Set<Concert> set = new HashSet<>();
+        for (Concert each : this.concerts) {
+            set.add(each);
+        }
+        return set;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.se_track_concert.benchmark;
+
+import com.example.se_track_concert.SeTrackConcertApplication;
+import com.example.se_track_concert.controller.DTO.ConcertSearchDTO;
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ConcertReviewInfo;
+import com.example.se_track_concert.repository.ConcertRepository;
+import com.example.se_track_concert.service.ConcertService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcertService against a real database, H2 in memory as in the tests and an embedded postgres as in production.
+ * The application context is started without web server and filled with generated concerts; the calls to the
+ * performer and review services are not exercised
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcertServiceBenchmark {
+
+    private static final int DAYS = 1500;
+    // half of the concerts are in the past and half in the future of the calendar
+    private static final LocalDate FIRST_DAY = LocalDate.now().minusDays(DAYS / 2);
+    private static final int STAGES = 20;
+
+    @Param({"h2", "postgres"})
+    public String database;
+
+    @Param({"10000"})
+    public int concerts;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ConcertService concertService;
+    private ConcertRepository concertRepository;
+    private long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> args = new ArrayList<>(List.of("--concert.invalidation.enabled=false", "--logging.level.root=warn"));
+        if ("postgres".equals(this.database)) {
+            this.postgres = EmbeddedPostgres.start();
+            args.add("--spring.datasource.url=" + this.postgres.getJdbcUrl("postgres", "postgres"));
+            args.add("--spring.datasource.username=postgres");
+            args.add("--spring.datasource.password=postgres");
+        } else {
+            args.add("--spring.profiles.active=test");
+        }
+        this.context = new SpringApplicationBuilder(SeTrackConcertApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        this.concertService = this.context.getBean(ConcertService.class);
+        this.concertRepository = this.context.getBean(ConcertRepository.class);
+
+        List<Concert> generated = new ArrayList<>();
+        for (int i = 0; i < this.concerts; i++) {
+            generated.add(concert(i));
+        }
+        this.concertService.saveConcerts(generated);
+        this.ids = generated.stream().mapToLong(Concert::getId).toArray();
+        for (long id : this.ids) {
+            this.concertService.getConcertById(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.context.close();
+        if (this.postgres != null) {
+            this.postgres.close();
+        }
+    }
+
+    @Benchmark
+    public Concert getConcertByIdCached() {
+        return this.concertService.getConcertById(this.nextId());
+    }
+
+    @Benchmark
+    public ConcertReviewInfo findReviewInfoById() {
+        return this.concertRepository.findReviewInfoById(this.nextId());
+    }
+
+    @Benchmark
+    public Concert findConcertById() {
+        return this.concertRepository.findConcertById(this.nextId());
+    }
+
+    @Benchmark
+    public List<Concert> getAllConcerts() {
+        return this.concertService.getAllConcerts();
+    }
+
+    @Benchmark
+    public void streamAllConcerts(Blackhole blackhole) {
+        this.concertService.streamAllConcerts(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<Concert> firstPageOfAllConcerts() {
+        return this.concertService.getAllConcerts(null, 100);
+    }
+
+    @Benchmark
+    public List<Concert> firstPageOfFutureConcerts() {
+        return this.concertService.getFutureConcerts(null, 100);
+    }
+
+    @Benchmark
+    public List<Concert> firstPageOfPastConcerts() {
+        return this.concertService.getPastConcerts(null, 100);
+    }
+
+    @Benchmark
+    public List<Concert> getConcertsByStage() {
+        return this.concertService.getConcertsByStage("stage 1");
+    }
+
+    @Benchmark
+    public List<Concert> searchByPerformerAndDays() {
+        long performerId = 1 + this.nextId() % (this.concerts / 10);
+        ConcertSearchDTO search = new ConcertSearchDTO(null, List.of(performerId), FIRST_DAY, FIRST_DAY.plusDays(DAYS),
+                LocalTime.of(18, 0), null);
+        return this.concertService.searchConcerts(search, Sort.by("day", "beginTime"), 100);
+    }
+
+    @Benchmark
+    public List<Concert> searchByStageAndDays() {
+        ConcertSearchDTO search = new ConcertSearchDTO("stage 1", null, FIRST_DAY.plusDays(100), FIRST_DAY.plusDays(130),
+                null, null);
+        return this.concertService.searchConcerts(search, Sort.by("day", "beginTime"), 100);
+    }
+
+    private long nextId() {
+        this.next = (this.next + 1) % this.ids.length;
+        return this.ids[this.next];
+    }
+
+    private Concert concert(int i) {
+        return new Concert(1 + i % (this.concerts / 10), FIRST_DAY.plusDays(i % DAYS), "Stage " + i % STAGES,
+                LocalTime.of(12 + i % 10, 0), LocalTime.of(13 + i % 10, 0));
+    }
+}
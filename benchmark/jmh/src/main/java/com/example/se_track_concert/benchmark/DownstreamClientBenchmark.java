@@ -0,0 +1,114 @@
+package com.example.se_track_concert.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.se_track_concert.config.DownstreamClientConfig;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriTemplate;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A check-id request against a local stub of the performer service. "create" is the client as it was, built with
+ * WebClient.create(), the url concatenated and parsed on every call and every signal logged; "shared" is the client of
+ * DownstreamClientConfig with a pre-built uri template. Log output is discarded, only producing it is measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DownstreamClientBenchmark {
+
+    @Param({"create", "shared"})
+    public String client;
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+    private String apiUrl;
+    private UriTemplate checkIdUri;
+
+    @Setup
+    public void setUp() {
+        this.server = HttpServer.create().host("localhost").port(0)
+                .route(routes -> routes.get("/performer/check-id", (request, response) -> response
+                        .header("Content-Type", "application/json").sendString(Mono.just("true"))))
+                .bindNow();
+        this.apiUrl = "http://localhost:" + this.server.port() + "/performer/";
+        this.checkIdUri = new UriTemplate(this.apiUrl + "check-id?id={id}");
+        discardLogs();
+        if (this.client.equals("create")) {
+            this.webClient = WebClient.create();
+        } else {
+            System.setProperty("performer.api", this.apiUrl);
+            StandardEnvironment env = new StandardEnvironment();
+            this.connectionProvider = new DownstreamClientConfig().downstreamConnectionProvider(env);
+            this.webClient = WebClient.builder()
+                    .clientConnector(new ReactorClientHttpConnector(DownstreamClientConfig.httpClient(this.connectionProvider, env)))
+                    .build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (this.connectionProvider != null) {
+            this.connectionProvider.disposeLater().block();
+        }
+        this.server.disposeNow();
+    }
+
+    @Benchmark
+    public Boolean checkId() {
+        return this.request().block();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Boolean checkIdConcurrently() {
+        return this.request().block();
+    }
+
+    private Mono<Boolean> request() {
+        long performerId = ThreadLocalRandom.current().nextLong(1, 1000);
+        if (this.client.equals("create")) {
+            return this.webClient.get().uri(this.apiUrl + "check-id?id=" + performerId).retrieve().bodyToMono(Boolean.class).log();
+        }
+        return this.webClient.get().uri(this.checkIdUri.expand(performerId)).retrieve().bodyToMono(Boolean.class);
+    }
+
+    /**
+     * logs at info like the application does, to a stream that drops everything
+     */
+    private static void discardLogs() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %-5level [%thread] %logger : %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+        root.setLevel(Level.INFO);
+    }
+}
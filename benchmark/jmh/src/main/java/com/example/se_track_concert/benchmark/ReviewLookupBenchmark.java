@@ -0,0 +1,125 @@
+package com.example.se_track_concert.benchmark;
+
+import com.example.se_track_concert.SeTrackConcertApplication;
+import com.example.se_track_concert.grpc.ConcertGrpcServer;
+import com.example.se_track_concert.grpc.ConcertLookupGrpc;
+import com.example.se_track_concert.grpc.ValidateReviewReply;
+import com.example.se_track_concert.grpc.ValidateReviewRequest;
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.repository.ConcertRepository;
+import com.example.se_track_concert.service.ConcertService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The review service's lookup of a concert before accepting a review, over REST (GET /concert/valid-review, HTTP/1.1
+ * and JSON read into a tree as a client would) and over gRPC (ValidateReview). The application runs on H2 with its
+ * web server and gRPC server on free ports; the concerts are cached, so mostly the transport is measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewLookupBenchmark {
+
+    private static final int CONCERTS = 1000;
+
+    @Param({"rest", "grpc"})
+    public String transport;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private ObjectMapper objectMapper;
+    private String validReviewUrl;
+    private ManagedChannel channel;
+    private ConcertLookupGrpc.ConcertLookupBlockingStub stub;
+    private long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.context = SpringApplication.run(SeTrackConcertApplication.class, "--spring.profiles.active=test",
+                "--server.port=0", "--concert.grpc.port=0", "--logging.level.root=warn");
+        List<Concert> generated = new ArrayList<>();
+        for (int i = 0; i < CONCERTS; i++) {
+            generated.add(new Concert(1 + i % 100, LocalDate.of(2020, 1, 1).plusDays(i), "Stage " + i % 20,
+                    LocalTime.of(20, 0), LocalTime.of(22, 0)));
+        }
+        this.context.getBean(ConcertRepository.class).writeAll(generated);
+        this.ids = generated.stream().mapToLong(Concert::getId).toArray();
+        ConcertService concertService = this.context.getBean(ConcertService.class);
+        for (long id : this.ids) {
+            concertService.getConcertById(id);
+        }
+
+        if (this.transport.equals("rest")) {
+            int port = ((WebServerApplicationContext) this.context).getWebServer().getPort();
+            this.validReviewUrl = "http://localhost:" + port + "/concert/valid-review?id=";
+            this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            this.objectMapper = new ObjectMapper();
+        } else {
+            int port = this.context.getBean(ConcertGrpcServer.class).getPort();
+            this.channel = NettyChannelBuilder.forAddress("localhost", port).usePlaintext().build();
+            this.stub = ConcertLookupGrpc.newBlockingStub(this.channel);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (this.channel != null) {
+            this.channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        this.context.close();
+    }
+
+    @Benchmark
+    public long validateReview() throws IOException, InterruptedException {
+        return this.lookup(this.nextId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long validateReviewConcurrently() throws IOException, InterruptedException {
+        return this.lookup(this.ids[(int) (Thread.currentThread().getId() % this.ids.length)]);
+    }
+
+    /**
+     * @param concertId of concert to look up
+     * @return performer of the concert, so the answer is read like the review service would
+     */
+    private long lookup(long concertId) throws IOException, InterruptedException {
+        if (this.transport.equals("rest")) {
+            HttpResponse<byte[]> response = this.httpClient.send(
+                    HttpRequest.newBuilder(URI.create(this.validReviewUrl + concertId)).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            JsonNode body = this.objectMapper.readTree(response.body());
+            return body.get("performerId").asLong();
+        }
+        ValidateReviewReply reply = this.stub.validateReview(ValidateReviewRequest.newBuilder().setConcertId(concertId).build());
+        return reply.getPerformerId();
+    }
+
+    private long nextId() {
+        this.next = (this.next + 1) % this.ids.length;
+        return this.ids[this.next];
+    }
+}
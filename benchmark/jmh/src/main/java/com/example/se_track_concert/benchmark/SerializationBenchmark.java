@@ -0,0 +1,69 @@
+package com.example.se_track_concert.benchmark;
+
+import com.example.se_track_concert.model.Concert;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of concert lists, configured like the ObjectMapper of Spring Boot. Compares writing the
+ * whole list at once, as the paged endpoints do, with writing element by element, as the streamed endpoints do
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter streamWriter;
+    private List<Concert> concerts;
+
+    @Setup
+    public void setUp() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        this.streamWriter = this.objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.concerts = new ArrayList<>();
+        for (int i = 0; i < this.size; i++) {
+            Concert concert = new Concert(1 + i % 1000, LocalDate.of(2020, 1, 1).plusDays(i % 1500), "Stage " + i % 20,
+                    LocalTime.of(12 + i % 10, 0), LocalTime.of(13 + i % 10, 0));
+            concert.setId((long) i + 1);
+            this.concerts.add(concert);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() throws IOException {
+        return this.objectMapper.writeValueAsBytes(this.concerts);
+    }
+
+    @Benchmark
+    public void writeStreamed() throws IOException {
+        try (OutputStream out = OutputStream.nullOutputStream();
+             JsonGenerator generator = this.streamWriter.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (Concert concert : this.concerts) {
+                this.streamWriter.writeValue(generator, concert);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
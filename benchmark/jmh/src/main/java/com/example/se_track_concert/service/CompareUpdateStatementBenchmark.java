@@ -0,0 +1,56 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.controller.DTO.UpdateConcertDTO;
+import com.example.se_track_concert.model.Concert;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcertService.compareUpdateStatement, in the service package because the method is package-private. The
+ * performer stays the same, so neither the performer nor the review service is called. "unchanged" finds no column
+ * to write since values are compared with equals
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompareUpdateStatementBenchmark {
+
+    private ConcertService concertService;
+    private Concert concert;
+    private UpdateConcertDTO unchanged;
+    private UpdateConcertDTO changed;
+
+    @Setup
+    public void setUp() {
+        this.concertService = new ConcertService(null, null, null, null, null, null, null, null, null, null, null);
+        this.concert = new Concert(1, LocalDate.of(2022, 7, 1), "Main Arena", LocalTime.of(20, 0), LocalTime.of(21, 0));
+        this.concert.setId(1L);
+        // equal values in other instances, as they arrive from JSON
+        this.unchanged = new UpdateConcertDTO(1, 1, LocalDate.parse("2022-07-01"), "Main Arena",
+                LocalTime.parse("20:00"), LocalTime.parse("21:00"));
+        this.changed = new UpdateConcertDTO(1, 1, LocalDate.of(2022, 7, 2), "Forest Stage",
+                LocalTime.of(18, 0), LocalTime.of(19, 0));
+    }
+
+    @Benchmark
+    public Map<String, Object> compareUnchanged() throws Throwable {
+        return this.concertService.compareUpdateStatement(this.unchanged, new Concert(this.concert));
+    }
+
+    @Benchmark
+    public Map<String, Object> compareChanged() throws Throwable {
+        return this.concertService.compareUpdateStatement(this.changed, new Concert(this.concert));
+    }
+
+    @Benchmark
+    public Concert copyOnly() {
+        return new Concert(this.concert);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.se_track_concert.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of the requests of one operation, safe to record from all users at once
+ */
+final class EndpointStats {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param status http status, or -1 when no response was received
+     * @param micros time until the whole response was read
+     */
+    void record(int status, long micros) {
+        this.latencies.recordValue(Math.min(micros, this.latencies.getHighestTrackableValue()));
+        if (status < 0) {
+            this.failures.increment();
+        } else if (status >= 500) {
+            this.serverErrors.increment();
+        } else if (status >= 400) {
+            this.clientErrors.increment();
+        } else {
+            this.successes.increment();
+        }
+    }
+
+    /**
+     * forgets the warmup
+     */
+    void reset() {
+        this.latencies.reset();
+        this.successes.reset();
+        this.clientErrors.reset();
+        this.serverErrors.reset();
+        this.failures.reset();
+    }
+
+    /**
+     * @param seconds measured time
+     * @return throughput, percentiles in milliseconds and outcome counts
+     */
+    Map<String, Object> report(double seconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("endpoint", this.name);
+        report.put("requests", this.latencies.getTotalCount());
+        report.put("throughput", this.latencies.getTotalCount() / seconds);
+        for (double percentile : PERCENTILES) {
+            report.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)) + "Ms",
+                    this.latencies.getValueAtPercentile(percentile) / 1000.0);
+        }
+        report.put("maxMs", this.latencies.getMaxValue() / 1000.0);
+        report.put("status2xx", this.successes.sum());
+        report.put("status4xx", this.clientErrors.sum());
+        report.put("status5xx", this.serverErrors.sum());
+        report.put("failures", this.failures.sum());
+        return report;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.se_track_concert.load;
+
+import com.example.se_track_concert.SeTrackConcertApplication;
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.service.ConcertService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the service on a random port against stub performer and review services and an embedded database, then
+ * lets a fixed number of users send a weighted mix of reads and writes. Reports throughput and latency percentiles
+ * per operation, see {@link LoadTestSettings} for the knobs
+ */
+public final class LoadTest {
+
+    private static final int PERFORMERS = 200;
+    private static final String[] STAGES = {"Main Arena", "Forest Stage", "Tent", "Club", "Beach"};
+
+    private final LoadTestSettings settings;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Long> stableIds = new ArrayList<>();
+    private final Queue<Long> deletableIds = new ConcurrentLinkedQueue<>();
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    private String baseUrl;
+
+    private LoadTest(LoadTestSettings settings) {
+        this.settings = settings;
+        this.operations = settings.getMix().keySet().toArray(String[]::new);
+        this.cumulativeWeights = new int[this.operations.length];
+        int total = 0;
+        for (int i = 0; i < this.operations.length; i++) {
+            total += settings.getMix().get(this.operations[i]);
+            this.cumulativeWeights[i] = total;
+            this.stats.put(this.operations[i], new EndpointStats(this.operations[i]));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = new LoadTestSettings();
+        System.out.println("Load test: " + settings);
+        Map<String, Object> report = new LoadTest(settings).run(args);
+        File file = new File("target/load-report.json");
+        file.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Report written to " + file.getAbsolutePath());
+        System.exit(0);
+    }
+
+    /**
+     * @param applicationArgs passed on to the service, to try other settings such as --spring.datasource.hikari.maximum-pool-size=20
+     */
+    private Map<String, Object> run(String[] applicationArgs) throws Exception {
+        EmbeddedPostgres postgres = null;
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--concert.grpc.port=0", "--logging.level.root=warn"));
+        if ("postgres".equals(this.settings.getDatabase())) {
+            postgres = EmbeddedPostgres.start();
+            args.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"));
+            args.add("--spring.datasource.username=postgres");
+            args.add("--spring.datasource.password=postgres");
+        } else {
+            args.add("--spring.profiles.active=test");
+        }
+        try (StubApis stubs = new StubApis(this.settings)) {
+            args.add("--performer.api=" + stubs.getPerformerApi());
+            args.add("--review.api=" + stubs.getReviewApi());
+            args.addAll(List.of(applicationArgs));
+            try (ConfigurableApplicationContext context = SpringApplication.run(SeTrackConcertApplication.class, args.toArray(String[]::new))) {
+                this.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/concert/";
+                this.seed(context);
+                stubs.addReviews(this.deletableIds);
+                return this.drive();
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    /**
+     * inserts concerts through the service without checking performers, so the stage index and the calendar hold
+     * them like concerts created over the API. Half of them are read and updated, the other half have reviews and may
+     * be deleted
+     */
+    private void seed(ConfigurableApplicationContext context) {
+        List<Concert> concerts = new ArrayList<>();
+        for (int i = 0; i < this.settings.getConcerts(); i++) {
+            concerts.add(randomConcert(ThreadLocalRandom.current()));
+        }
+        context.getBean(ConcertService.class).saveConcerts(concerts);
+        for (int i = 0; i < concerts.size(); i++) {
+            if (i % 2 == 0) {
+                this.stableIds.add(concerts.get(i).getId());
+            } else {
+                this.deletableIds.add(concerts.get(i).getId());
+            }
+        }
+    }
+
+    private Map<String, Object> drive() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + this.settings.getWarmup().toNanos();
+        long end = measureFrom + this.settings.getDuration().toNanos();
+        List<Thread> users = new ArrayList<>();
+        for (int i = 0; i < this.settings.getUsers(); i++) {
+            Thread user = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    this.sendOne();
+                }
+            }, "load-user-" + i);
+            users.add(user);
+            user.start();
+        }
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        this.stats.values().forEach(EndpointStats::reset);
+        long measured = System.nanoTime();
+        for (Thread user : users) {
+            user.join();
+        }
+        double seconds = (System.nanoTime() - measured) / 1e9;
+
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        this.stats.values().forEach(endpoint -> endpoints.add(endpoint.report(seconds)));
+        print(endpoints);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", this.settings.toString());
+        report.put("seconds", seconds);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private void sendOne() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String operation = this.pick(random);
+        HttpRequest request = this.request(operation, random);
+        if (request == null) {
+            return;
+        }
+        long begin = System.nanoTime();
+        int status;
+        try {
+            status = this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        this.stats.get(operation).record(status, (System.nanoTime() - begin) / 1000);
+    }
+
+    private String pick(ThreadLocalRandom random) {
+        int value = random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+        for (int i = 0; i < this.cumulativeWeights.length; i++) {
+            if (value < this.cumulativeWeights[i]) {
+                return this.operations[i];
+            }
+        }
+        return this.operations[this.operations.length - 1];
+    }
+
+    /**
+     * @return request of the operation, or null when there is nothing left to delete
+     */
+    private HttpRequest request(String operation, ThreadLocalRandom random) {
+        long id = this.stableIds.get(random.nextInt(this.stableIds.size()));
+        switch (operation) {
+            case "all":
+                return this.get("all");
+            case "future":
+                return this.get("future-concerts");
+            case "by-id":
+                return this.get(String.valueOf(id));
+            case "valid-review":
+                return this.get("valid-review?id=" + id);
+            case "new":
+                return this.send("POST", "new", json(null, randomConcert(random)));
+            case "update":
+                return this.send("PUT", "update", json(id, randomConcert(random)));
+            case "delete":
+                Long deletable = this.deletableIds.poll();
+                return deletable == null ? null : this.send("DELETE", "delete?id=" + deletable, null);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation + " in load.mix");
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(this.baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(this.baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static Concert randomConcert(ThreadLocalRandom random) {
+        LocalTime begin = LocalTime.of(12 + random.nextInt(10), 0);
+        return new Concert(1 + random.nextInt(PERFORMERS), LocalDate.now().plusDays(random.nextInt(-365, 365)),
+                STAGES[random.nextInt(STAGES.length)], begin, begin.plusHours(1));
+    }
+
+    private static String json(Long id, Concert concert) {
+        return "{" + (id == null ? "" : "\"id\":" + id + ",")
+                + "\"performerId\":" + concert.getPerformerId()
+                + ",\"day\":\"" + concert.getDay()
+                + "\",\"stage\":\"" + concert.getStage()
+                + "\",\"beginTime\":\"" + concert.getBeginTime()
+                + "\",\"endTime\":\"" + concert.getEndTime() + "\"}";
+    }
+
+    private static void print(List<Map<String, Object>> endpoints) {
+        System.out.printf("%-14s %9s %9s %9s %9s %9s %9s %9s %7s %7s %7s %7s%n", "operation", "requests", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "2xx", "4xx", "5xx", "failed");
+        for (Map<String, Object> endpoint : endpoints) {
+            System.out.printf("%-14s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d %7d%n",
+                    endpoint.get("endpoint"), endpoint.get("requests"), endpoint.get("throughput"),
+                    endpoint.get("p50Ms"), endpoint.get("p90Ms"), endpoint.get("p99Ms"), endpoint.get("p99.9Ms"),
+                    endpoint.get("maxMs"), endpoint.get("status2xx"), endpoint.get("status4xx"),
+                    endpoint.get("status5xx"), endpoint.get("failures"));
+        }
+    }
+}
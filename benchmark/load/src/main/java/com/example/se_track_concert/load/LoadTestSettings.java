@@ -0,0 +1,140 @@
+package com.example.se_track_concert.load;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from system properties. Stub behaviour can be set for all stubbed endpoints,
+ * load.stub.latency, and per endpoint, load.stub.check-id.latency
+ */
+public final class LoadTestSettings {
+
+    static final String DEFAULT_MIX = "all=2,future=13,by-id=20,valid-review=40,new=10,update=10,delete=5";
+
+    private final String database = property("load.database", "postgres");
+    private final int concerts = Integer.parseInt(property("load.concerts", "2000"));
+    private final int users = Integer.parseInt(property("load.users", "32"));
+    private final Duration warmup = Duration.parse(property("load.warmup", "PT10S"));
+    private final Duration duration = Duration.parse(property("load.duration", "PT60S"));
+    private final boolean batchDelete = Boolean.parseBoolean(property("load.stub.batch-delete", "false"));
+    private final int reviewsPerConcert = Integer.parseInt(property("load.stub.reviews-per-concert", "3"));
+    private final Map<String, Integer> mix = parseMix(property("load.mix", DEFAULT_MIX));
+
+    /**
+     * @return postgres for an embedded postgres, h2 for the in-memory database of the tests
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * @return number of concerts created before the test
+     */
+    public int getConcerts() {
+        return concerts;
+    }
+
+    /**
+     * @return number of concurrent users, each sends its next request when the previous one completed
+     */
+    public int getUsers() {
+        return users;
+    }
+
+    /**
+     * @return time before measuring starts
+     */
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * @return measured time
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return whether the review stub offers delete-batch, otherwise reviews are deleted one by one
+     */
+    public boolean isBatchDelete() {
+        return batchDelete;
+    }
+
+    /**
+     * @return number of reviews the review stub returns for a concert that has reviews
+     */
+    public int getReviewsPerConcert() {
+        return reviewsPerConcert;
+    }
+
+    /**
+     * @return relative weight per operation
+     */
+    public Map<String, Integer> getMix() {
+        return mix;
+    }
+
+    /**
+     * @param endpoint check-id, review-by-concert or delete
+     * @return latency and errors injected by the stub for this endpoint
+     */
+    public StubBehaviour stub(String endpoint) {
+        return new StubBehaviour(
+                Duration.parse(stubProperty(endpoint, "latency", "PT0.02S")),
+                Duration.parse(stubProperty(endpoint, "jitter", "PT0.01S")),
+                Double.parseDouble(stubProperty(endpoint, "error-rate", "0")));
+    }
+
+    @Override
+    public String toString() {
+        return "database=" + database + ", concerts=" + concerts + ", users=" + users + ", warmup=" + warmup
+                + ", duration=" + duration + ", batchDelete=" + batchDelete + ", mix=" + mix;
+    }
+
+    private static String stubProperty(String endpoint, String name, String defaultValue) {
+        return property("load.stub." + endpoint + "." + name, property("load.stub." + name, defaultValue));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * latency of a stubbed endpoint is latency plus a random part of jitter, errorRate of the requests fail with 500
+     */
+    public static final class StubBehaviour {
+        private final Duration latency;
+        private final Duration jitter;
+        private final double errorRate;
+
+        StubBehaviour(Duration latency, Duration jitter, double errorRate) {
+            this.latency = latency;
+            this.jitter = jitter;
+            this.errorRate = errorRate;
+        }
+
+        public Duration getLatency() {
+            return latency;
+        }
+
+        public Duration getJitter() {
+            return jitter;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.se_track_concert.load;
+
+import com.example.se_track_concert.load.LoadTestSettings.StubBehaviour;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-ins for the performer and review services on one Netty server, under /performer/ and /review/. Every
+ * performer exists. Only the concerts passed to {@link #addReviews(Collection)} have reviews, so updates of the
+ * others may change the performer, and deleting one of them leaves reviews for the outbox to remove
+ */
+public final class StubApis implements AutoCloseable {
+
+    private final LoadTestSettings settings;
+    private final Set<Long> reviewedConcertIds = ConcurrentHashMap.newKeySet();
+    private final DisposableServer server;
+
+    public StubApis(LoadTestSettings settings) {
+        this.settings = settings;
+        StubBehaviour checkId = settings.stub("check-id");
+        StubBehaviour reviewByConcert = settings.stub("review-by-concert");
+        StubBehaviour delete = settings.stub("delete");
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/performer/check-id", (request, response) -> respond(response, checkId, "true"))
+                        .get("/review/review-by-concert", (request, response) -> respond(response, reviewByConcert, this.reviewsJson(request)))
+                        .delete("/review/delete", (request, response) -> respond(response, delete, ""))
+                        .post("/review/delete-batch", (request, response) -> settings.isBatchDelete()
+                                ? respond(response, delete, "")
+                                : response.status(HttpResponseStatus.NOT_FOUND).send()))
+                .bindNow();
+    }
+
+    /**
+     * @param concertIds concerts that get load.stub.reviews-per-concert reviews
+     */
+    public void addReviews(Collection<Long> concertIds) {
+        this.reviewedConcertIds.addAll(concertIds);
+    }
+
+    /**
+     * @return base url of the performer stub, as performer.api
+     */
+    public String getPerformerApi() {
+        return "http://localhost:" + this.server.port() + "/performer/";
+    }
+
+    /**
+     * @return base url of the review stub, as review.api
+     */
+    public String getReviewApi() {
+        return "http://localhost:" + this.server.port() + "/review/";
+    }
+
+    @Override
+    public void close() {
+        this.server.disposeNow();
+    }
+
+    private String reviewsJson(HttpServerRequest request) {
+        List<String> concertId = new QueryStringDecoder(request.uri()).parameters().get("concertId");
+        StringJoiner reviews = new StringJoiner(",", "[", "]");
+        if (concertId != null && this.reviewedConcertIds.contains(Long.valueOf(concertId.get(0)))) {
+            for (int i = 0; i < this.settings.getReviewsPerConcert(); i++) {
+                reviews.add("{\"id\":\"review-" + concertId.get(0) + "-" + i + "\",\"rating\":4}");
+            }
+        }
+        return reviews.toString();
+    }
+
+    private static Mono<Void> respond(HttpServerResponse response, StubBehaviour behaviour, String body) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long jitter = behaviour.getJitter().toNanos();
+        Duration delay = behaviour.getLatency().plusNanos(jitter > 0 ? random.nextLong(jitter) : 0);
+        boolean fail = random.nextDouble() < behaviour.getErrorRate();
+        return Mono.delay(delay).then(Mono.defer(() -> fail
+                ? response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).sendString(Mono.just("injected error")).then()
+                : response.header("Content-Type", "application/json").sendString(Mono.just(body)).then()));
+    }
+}
@@ -0,0 +1,31 @@
+-- the SQL hibernate generates for the ConcertRepository methods, run by query-plans.sql
+
+\echo '--- findConcertByPerformerId'
+explain (analyze, buffers) select * from concert_bench where performer_id = 4242;
+
+\echo '--- existence check of check-delete-performer'
+explain (analyze, buffers) select concert_id from concert_bench where performer_id = 4242 limit 1;
+
+\echo '--- findByDayAfter (future concerts)'
+explain (analyze, buffers) select * from concert_bench where day > date '2039-06-01';
+
+\echo '--- findByDayBefore (past concerts)'
+explain (analyze, buffers) select * from concert_bench where day < date '2000-06-01';
+
+\echo '--- keyset page of future concerts'
+explain (analyze, buffers) select * from concert_bench
+where day > date '2030-01-01' and (day > date '2031-03-01' or (day = date '2031-03-01' and concert_id > 500000))
+order by day, concert_id limit 100;
+
+\echo '--- concerts of a day on a stage'
+explain (analyze, buffers) select * from concert_bench where day = date '2020-05-05' and stage = 'Stage 5';
+
+\echo '--- search: performers in a date range, evening concerts'
+explain (analyze, buffers) select * from concert_bench
+where performer_id in (4242, 4243) and day >= date '2020-01-01' and day <= date '2030-12-31' and begin_time >= time '18:00'
+order by day, begin_time, concert_id limit 100;
+
+\echo '--- search: stage substring on a date range'
+explain (analyze, buffers) select * from concert_bench
+where lower(stage) like '%ge 1%' escape '\' and day >= date '2020-05-01' and day <= date '2020-05-07'
+order by day, begin_time, concert_id limit 100;
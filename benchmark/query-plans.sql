@@ -0,0 +1,36 @@
+-- Query plans and latencies of the concert queries on 1M rows, without and with the indexes of
+-- V2__index_concert_queries.sql. Works on a scratch copy of the table, existing data is not touched.
+--
+--   psql -h localhost -U jelmer -d jelmer -f benchmark/query-plans.sql > benchmark/query-plans.out
+--
+-- Compare the "Execution Time" lines and the scan types (Seq Scan versus Index Scan) of both runs.
+
+\timing on
+
+drop table if exists concert_bench;
+create table concert_bench (like concert including defaults);
+alter table concert_bench add primary key (concert_id);
+
+-- 1M concerts: 20k performers, 20 stages, spread over 2000-2039
+insert into concert_bench (concert_id, performer_id, day, stage, begin_time, end_time)
+select i,
+       1 + (i * 7919) % 20000,
+       date '2000-01-01' + (i % 14600),
+       'Stage ' || (i % 20),
+       time '12:00' + ((i % 12) * interval '1 hour'),
+       time '13:00' + ((i % 12) * interval '1 hour')
+from generate_series(1, 1000000) as i;
+vacuum analyze concert_bench;
+
+\echo '==================== without indexes ===================='
+\ir query-plans-queries.sql
+
+create index on concert_bench (performer_id);
+create index on concert_bench (day, concert_id);
+create index on concert_bench (day, stage);
+vacuum analyze concert_bench;
+
+\echo '==================== with indexes ===================='
+\ir query-plans-queries.sql
+
+drop table concert_bench;
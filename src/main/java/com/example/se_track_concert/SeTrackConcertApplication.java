@@ -2,8 +2,10 @@ package com.example.se_track_concert;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SeTrackConcertApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,55 @@
+package com.example.se_track_concert.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * CBOR (application/cbor) next to JSON, for the other services of the festival. Responses are CBOR only when the
+ * client asks for it in its Accept header, JSON stays the default. The mapper is built from the same Jackson settings
+ * as the JSON one, so both formats carry dates and times the same way. The codecs also apply to the WebClient
+ * calling the other services
+ */
+@Configuration
+public class CborConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper cborMapper;
+
+    @Autowired
+    public CborConfig(Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder) {
+        this.cborMapper = jacksonObjectMapperBuilder.factory(new CBORFactory()).build();
+    }
+
+    /**
+     * replaces the CBOR converter Spring MVC adds by default, which ignores spring.jackson.*
+     * @param converters configured converters, JSON before CBOR
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2CborHttpMessageConverter(this.cborMapper));
+    }
+
+    /**
+     * @return customizer registering the CBOR codecs with WebFlux and every WebClient.Builder
+     */
+    @Bean
+    public CodecCustomizer cborCodecCustomizer() {
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2CborEncoder(this.cborMapper, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new Jackson2CborDecoder(this.cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+}
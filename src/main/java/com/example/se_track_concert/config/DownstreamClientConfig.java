@@ -0,0 +1,96 @@
+package com.example.se_track_concert.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.logging.LogLevel;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.logging.AdvancedByteBufFormat;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The WebClient shared by the services calling the performer and review service. Every downstream host gets its own
+ * connection pool, sized with &lt;service&gt;.client.pool.*; connections are kept alive and evicted when idle.
+ * HTTP/2 (h2c) and wiretap logging are off unless downstream.client.http2 and downstream.client.wiretap are set.
+ * Responses are asked for in CBOR, falling back to JSON, see {@link CborConfig}
+ */
+@Configuration
+public class DownstreamClientConfig {
+
+    private static final List<String> SERVICES = List.of("performer", "review");
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider(Environment env) {
+        ConnectionProvider.Builder builder = pool(ConnectionProvider.builder("downstream"), env, "downstream.client.");
+        for (String service : SERVICES) {
+            String api = env.getProperty(service + ".api");
+            if (api != null) {
+                URI uri = URI.create(api);
+                int port = uri.getPort() != -1 ? uri.getPort() : "https".equals(uri.getScheme()) ? 443 : 80;
+                builder.forRemoteHost(InetSocketAddress.createUnresolved(uri.getHost(), port),
+                        spec -> pool(spec, env, service + ".client."));
+            }
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public WebClient downstreamWebClient(WebClient.Builder webClientBuilder, ConnectionProvider downstreamConnectionProvider,
+                                         Environment env) {
+        return webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient(downstreamConnectionProvider, env)))
+                .defaultHeaders(headers -> headers.setAccept(accept(env)))
+                .build();
+    }
+
+    /**
+     * @param env downstream.client.cbor, on by default
+     * @return media types to ask the other services for, CBOR before JSON. A service without CBOR answers with JSON
+     */
+    public static List<MediaType> accept(Environment env) {
+        if (env.getProperty("downstream.client.cbor", Boolean.class, true)) {
+            return List.of(MediaType.APPLICATION_CBOR, new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.9")));
+        }
+        return List.of(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * @param connectionProvider pools the connections
+     * @param env downstream.client.* settings
+     * @return client with keep-alive, connect timeout and optionally HTTP/2 and wiretap logging
+     */
+    public static HttpClient httpClient(ConnectionProvider connectionProvider, Environment env) {
+        Duration connectTimeout = env.getProperty("downstream.client.connect-timeout", Duration.class, Duration.ofSeconds(1));
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis());
+        if (env.getProperty("downstream.client.http2", Boolean.class, false)) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        if (env.getProperty("downstream.client.wiretap", Boolean.class, false)) {
+            httpClient = httpClient.wiretap(HttpClient.class.getName(), LogLevel.DEBUG, AdvancedByteBufFormat.TEXTUAL);
+        }
+        return httpClient;
+    }
+
+    private static <T extends ConnectionProvider.ConnectionPoolSpec<T>> T pool(T spec, Environment env, String prefix) {
+        return spec.maxConnections(env.getProperty(prefix + "pool.max-connections", Integer.class, 50))
+                .pendingAcquireMaxCount(env.getProperty(prefix + "pool.pending-acquire-max-count", Integer.class, 200))
+                .pendingAcquireTimeout(env.getProperty(prefix + "pool.pending-acquire-timeout", Duration.class, Duration.ofSeconds(1)))
+                .maxIdleTime(env.getProperty(prefix + "pool.max-idle-time", Duration.class, Duration.ofSeconds(30)))
+                .maxLifeTime(env.getProperty(prefix + "pool.max-life-time", Duration.class, Duration.ofMinutes(5)))
+                .evictInBackground(env.getProperty(prefix + "pool.eviction-interval", Duration.class, Duration.ofSeconds(30)))
+                .metrics(true);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.se_track_concert.config;
+
+import com.example.se_track_concert.repository.ConcertRepository;
+import com.example.se_track_concert.repository.ReactiveConcertRepository;
+import com.example.se_track_concert.repository.ReactiveReviewCleanupRepository;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Concert and ReviewCleanupTask are both JPA entities and R2DBC rows, so JPA would otherwise also try to implement the
+ * reactive repositories. The reactive profile runs without a DataSource and therefore without JPA repositories
+ */
+@Configuration
+@Profile("!reactive")
+@EnableJpaRepositories(
+        basePackageClasses = ConcertRepository.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {ReactiveConcertRepository.class, ReactiveReviewCleanupRepository.class}))
+public class JpaConfig {
+}
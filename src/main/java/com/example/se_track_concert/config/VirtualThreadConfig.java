@@ -0,0 +1,54 @@
+package com.example.se_track_concert.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling and Spring's async tasks (streamed responses among others) on virtual threads, so
+ * blocking calls to the db and to the other services no longer hold a platform thread. Requires a Java 21 runtime;
+ * the code is still compiled for Java 17, which is why the executor is looked up at runtime.
+ * Enable with concert.virtual-threads.enabled=true
+ */
+@Configuration
+@ConditionalOnProperty(name = "concert.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private final ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+
+    /**
+     * replaces Tomcat's bounded worker pool, server.tomcat.threads.max no longer applies
+     * @return customizer setting the virtual thread executor
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(this.virtualThreadExecutor);
+    }
+
+    /**
+     * used for @Async methods and as the MVC async executor
+     * @return task executor starting a virtual thread per task
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME, "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(this.virtualThreadExecutor);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("concert.virtual-threads.enabled requires Java 21 or newer, running on "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+}
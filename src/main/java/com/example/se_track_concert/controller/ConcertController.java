@@ -1,44 +1,175 @@
 package com.example.se_track_concert.controller;
 
+import com.example.se_track_concert.controller.DTO.BulkConcertResultDTO;
+import com.example.se_track_concert.controller.DTO.ConcertPageDTO;
+import com.example.se_track_concert.controller.DTO.ConcertSearchDTO;
 import com.example.se_track_concert.controller.DTO.JsonResponseDTO;
 import com.example.se_track_concert.controller.DTO.NewConcertDTO;
 import com.example.se_track_concert.controller.DTO.UpdateConcertDTO;
 import com.example.se_track_concert.controller.DTO.ValidReviewDTO;
 import com.example.se_track_concert.exception.ConcertHasReviewsException;
 import com.example.se_track_concert.exception.ConcertNotFoundException;
+import com.example.se_track_concert.exception.ConcertUpdateConflictException;
 import com.example.se_track_concert.exception.InvalidPerformerIdException;
 import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ConcertReviewInfo;
+import com.example.se_track_concert.service.ConcertCursor;
+import com.example.se_track_concert.service.ConcertDataVersion;
 import com.example.se_track_concert.service.ConcertService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("concert")
 @CrossOrigin
+@Profile("!reactive")
 public class ConcertController {
 
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_BULK_SIZE = 10_000;
+    static final int MAX_SUGGESTIONS = 50;
+    static final String CSV_HEADER = "id,performerId,day,stage,beginTime,endTime\r\n";
+    static final Set<String> SEARCH_SORT_FIELDS = Set.of("id", "day", "stage", "beginTime", "endTime", "performerId");
+
     private final ConcertService concertService;
+    private final ObjectWriter concertWriter;
+    private final ObjectWriter ndjsonWriter;
+    private final Validator validator;
+    private final CacheControl listCacheControl;
+    private final boolean conditionalGets;
 
     @Autowired
-    public ConcertController(ConcertService concertService) {
+    public ConcertController(ConcertService concertService, ObjectMapper objectMapper, Validator validator, Environment env) {
         this.concertService = concertService;
+        this.concertWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // each row ends with a newline instead of being separated by a space
+        this.ndjsonWriter = this.concertWriter.withRootValueSeparator((String) null);
+        this.validator = validator;
+        this.listCacheControl = CacheControl.maxAge(env.getProperty("concert.list.max-age", Duration.class, Duration.ZERO))
+                .mustRevalidate()
+                .cachePublic();
+        // without invalidation a replica does not see the writes of the others and would answer 304 to stale copies
+        this.conditionalGets = env.getProperty("concert.list.conditional-get", Boolean.class,
+                env.getProperty("concert.invalidation.enabled", Boolean.class, false));
     }
 
     /**
-     * endpoint to get all concerts
+     * endpoint to get all concerts, streamed as one JSON array while they are read from the db. Answers 304
+     * without reading the db when the client's ETag or Last-Modified is still current
      *
+     * @param request for the conditional headers
      * @return List of all concerts in db
      */
+    @GetMapping(value = "/all", params = {"!cursor", "!limit"})
+    public ResponseEntity<StreamingResponseBody> getAllConcerts(ServletWebRequest request) {
+        if (this.notModified(request, false)) {
+            return null;
+        }
+        return this.streamConcerts(this.concertService::streamAllConcerts);
+    }
+
+    /**
+     * endpoint to get all concerts one page at a time
+     *
+     * @param cursor next token of the previous page
+     * @param limit maximum number of concerts in the page
+     * @param request for the conditional headers
+     * @return page of concerts ordered by id
+     */
     @GetMapping(value = "/all")
-    public List<Concert> getAllConcerts() {
-        return this.concertService.getAllConcerts();
+    public ResponseEntity<ConcertPageDTO> getAllConcertsPage(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             ServletWebRequest request) {
+        int pageSize = this.checkPageSize(limit);
+        ConcertCursor after = this.decodeCursor(cursor);
+        if (this.notModified(request, true)) {
+            return null;
+        }
+        return ResponseEntity.ok(ConcertPageDTO.of(this.concertService.getAllConcerts(after, pageSize), pageSize));
+    }
+
+    /**
+     * endpoint to export every concert for analytics, one row at a time while they are read from the db. Rows are
+     * written as newline-delimited JSON or as CSV with a header line. Writing blocks while the client is not reading,
+     * so memory use stays the same however many concerts there are; the response is gzipped by the server when the
+     * client accepts it (server.compression.*)
+     *
+     * @param format ndjson or csv
+     * @return response writing the rows
+     */
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportConcerts(@RequestParam(defaultValue = "ndjson") String format) {
+        StreamingResponseBody body;
+        MediaType contentType;
+        if (format.equals("ndjson")) {
+            contentType = MediaType.APPLICATION_NDJSON;
+            body = outputStream -> {
+                try (JsonGenerator generator = this.ndjsonWriter.getFactory().createGenerator(outputStream)) {
+                    this.concertService.streamAllConcerts(concert -> {
+                        try {
+                            this.ndjsonWriter.writeValue(generator, concert);
+                            generator.writeRaw('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            };
+        } else if (format.equals("csv")) {
+            contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+            body = outputStream -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                writer.write(CSV_HEADER);
+                this.concertService.streamAllConcerts(concert -> {
+                    try {
+                        writeCsvRow(writer, concert);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+            };
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be ndjson or csv");
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("concerts." + format).build().toString())
+                .body(body);
     }
 
     /**
@@ -47,11 +178,57 @@ public class ConcertController {
      * @param stage search parameter
      * @return List of concerts matching the criteria
      */
-    @GetMapping(value = "/by-stage")
+    @GetMapping(value = "/by-stage", params = {"!cursor", "!limit"})
     public List<Concert> getConcertsByStage(@RequestParam String stage) {
         return this.concertService.getConcertsByStage(stage);
     }
 
+    /**
+     * endpoint to search concerts by stage name one page at a time
+     *
+     * @param stage search parameter
+     * @param cursor next token of the previous page
+     * @param limit maximum number of concerts in the page
+     * @return page of concerts matching the criteria ordered by id
+     */
+    @GetMapping(value = "/by-stage")
+    public ConcertPageDTO getConcertsByStagePage(@RequestParam String stage,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
+        int pageSize = this.checkPageSize(limit);
+        return ConcertPageDTO.of(this.concertService.getConcertsByStage(stage, this.decodeCursor(cursor), pageSize), pageSize);
+    }
+
+    /**
+     * endpoint to search concerts on any combination of stage, performers, days and time of day
+     *
+     * @param search filters, all optional
+     * @param sort comma separated fields to order by, a leading - sorts descending. Defaults to day and begin time
+     * @param limit maximum number of concerts
+     * @return List of concerts matching all given filters
+     */
+    @GetMapping(value = "/search")
+    public List<Concert> searchConcerts(@ModelAttribute ConcertSearchDTO search,
+                                        @RequestParam(defaultValue = "day,beginTime") String sort,
+                                        @RequestParam(required = false) Integer limit) {
+        if (search.getDayFrom() != null && search.getDayTo() != null && search.getDayFrom().isAfter(search.getDayTo())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "dayFrom must not be after dayTo");
+        }
+        return this.concertService.searchConcerts(search, this.parseSort(sort), this.checkPageSize(limit));
+    }
+
+    /**
+     * endpoint for stage name autocompletion
+     *
+     * @param prefix typed part of a stage name
+     * @param limit maximum number of names
+     * @return stage names, names starting with the prefix and stages with more concerts first
+     */
+    @GetMapping(value = "/stages/suggest")
+    public List<String> suggestStages(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        return this.concertService.suggestStages(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
     /**
      * endpoint to get a concert by id
      *
@@ -84,11 +261,61 @@ public class ConcertController {
         return ResponseEntity.status(HttpStatus.CREATED).body(null);
     }
 
+    /**
+     * endpoint to create many concerts in one request. Each concert is validated on its own, so invalid
+     * concerts do not prevent the valid ones from being created
+     *
+     * @param newConcertDTOs concerts to create
+     * @return per concert the status 201 if it was created, 503 if its performer could not be checked, otherwise 400
+     * with the reason
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createNewConcerts(@RequestBody List<NewConcertDTO> newConcertDTOs) {
+        if (newConcertDTOs.size() > MAX_BULK_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).
+                    body(new JsonResponseDTO("At most " + MAX_BULK_SIZE + " concerts per request"));
+        }
+        BulkConcertResultDTO[] results = new BulkConcertResultDTO[newConcertDTOs.size()];
+        List<NewConcertDTO> validConcerts = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < newConcertDTOs.size(); i++) {
+            if (newConcertDTOs.get(i) == null) {
+                results[i] = new BulkConcertResultDTO(i, HttpStatus.BAD_REQUEST.value(), "Concert at index " + i + " is null");
+                continue;
+            }
+            Set<ConstraintViolation<NewConcertDTO>> violations = this.validator.validate(newConcertDTOs.get(i));
+            if (violations.isEmpty()) {
+                validConcerts.add(newConcertDTOs.get(i));
+                validIndexes.add(i);
+            } else {
+                results[i] = new BulkConcertResultDTO(i, HttpStatus.BAD_REQUEST.value(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+        List<Boolean> created = this.concertService.createNewConcerts(validConcerts);
+        for (int i = 0; i < validIndexes.size(); i++) {
+            int index = validIndexes.get(i);
+            if (created.get(i) == null) {
+                results[index] = new BulkConcertResultDTO(index, HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Performer " + validConcerts.get(i).getPerformerId() + " could not be checked, try again later");
+            } else if (created.get(i)) {
+                results[index] = new BulkConcertResultDTO(index, HttpStatus.CREATED.value(), null);
+            } else {
+                results[index] = new BulkConcertResultDTO(index, HttpStatus.BAD_REQUEST.value(),
+                        "No performer found with id " + validConcerts.get(i).getPerformerId());
+            }
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(List.of(results));
+    }
+
     /**
      * endpoint to update concert. Multiple checks are done to ensure only an existing concert is updated
      *
      * @param updateConcertDTO information needed for the update
-     * @return HttpStatus 200 if all went well, 400 if something went wrong
+     * @return HttpStatus 200 if all went well, 400 if something went wrong, 409 if the performer can't be changed or the
+     * concert was changed since the given version
      */
     @PutMapping("/update")
     public ResponseEntity<?> updateConcert(@Validated @RequestBody UpdateConcertDTO updateConcertDTO) {
@@ -102,15 +329,18 @@ public class ConcertController {
         } catch (ConcertHasReviewsException e) {
             return ResponseEntity.status(HttpStatus.CONFLICT).
                     body(new JsonResponseDTO("Concert has reviews, performer can't be changed"));
+        } catch (ConcertUpdateConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).
+                    body(new JsonResponseDTO("Concert was changed in the meantime, read it again before updating"));
         }
         return ResponseEntity.status(HttpStatus.OK).body(null);
     }
 
     /**
-     * endpoint to delete a concert by id.
+     * endpoint to delete a concert by id. Its reviews are deleted in the background
      *
      * @param id of concert
-     * @return HttpStatus 200 if all went well, 400 if something went wrong
+     * @return HttpStatus 200 if all went well, 400 if the concert does not exist
      */
     @DeleteMapping(value = "/delete")
     public ResponseEntity<?> deleteConcert(@RequestParam Long id) {
@@ -131,11 +361,11 @@ public class ConcertController {
      */
     @GetMapping(value = "/valid-review")
     public ResponseEntity<?> checkIfConcertCanBeReviewed(@RequestParam Long id) {
-        Concert concert = this.concertService.getConcertById(id);
+        ConcertReviewInfo concert = this.concertService.getConcertReviewInfo(id);
         if (concert == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new JsonResponseDTO("No concert found with id " + id));
         }
-        if (concert.getDay().isAfter(LocalDate.now())) {
+        if (concert.getDay().isAfter(this.concertService.getToday())) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new JsonResponseDTO("Concert has not been performed yet, no review possible"));
         }
         return ResponseEntity.status(HttpStatus.OK).body(new ValidReviewDTO(true, concert.getPerformerId()));
@@ -152,25 +382,216 @@ public class ConcertController {
 
     @GetMapping(value = "/check-delete-performer")
     public ResponseEntity<?> checkIfPerformerCanBeDeleted(@RequestParam long performerId) {
-        List<Concert> concerts;
+        boolean hasConcerts;
         try {
-            concerts = this.concertService.getConcertsByPerformerId(performerId);
+            hasConcerts = this.concertService.performerHasConcerts(performerId);
         } catch (InvalidPerformerIdException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new JsonResponseDTO("No performer found with id " + performerId));
         }
-        if (concerts.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.OK).body(Boolean.TRUE);
+        return ResponseEntity.status(HttpStatus.OK).body(!hasConcerts);
+    }
+
+    /**
+     * endpoint to get the concerts before today in the festival time zone, answered from memory
+     *
+     * @param request for the conditional headers
+     * @return concerts ordered by day and id
+     */
+    @GetMapping(value = "/past-concerts", params = {"!cursor", "!limit"})
+    public ResponseEntity<StreamingResponseBody> getConcertsBeforeToday(ServletWebRequest request) {
+        if (this.notModified(request, false)) {
+            return null;
         }
-        return ResponseEntity.status(HttpStatus.OK).body(Boolean.FALSE);
+        return this.streamConcerts(this.concertService::streamPastConcerts);
     }
 
-    @GetMapping(value="/past-concerts")
-    public List<Concert> getConcertsBeforeToday() {
-        return this.concertService.getConcertsBeforeDate(LocalDate.now());
+    @GetMapping(value = "/past-concerts")
+    public ResponseEntity<ConcertPageDTO> getConcertsBeforeTodayPage(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     ServletWebRequest request) {
+        int pageSize = this.checkPageSize(limit);
+        ConcertCursor after = this.decodeCursor(cursor);
+        if (this.notModified(request, true)) {
+            return null;
+        }
+        return ResponseEntity.ok(ConcertPageDTO.of(this.concertService.getPastConcerts(after, pageSize), pageSize));
     }
 
-    @GetMapping(value="/future-concerts")
-    public List<Concert> getConcertsAfterToday() {
-        return this.concertService.getConcertsAfterDate(LocalDate.now());
+    /**
+     * endpoint to get the concerts of today in the festival time zone, answered from memory
+     *
+     * @param request for the conditional headers
+     * @return concerts ordered by id
+     */
+    @GetMapping(value = "/today-concerts")
+    public ResponseEntity<List<Concert>> getConcertsToday(ServletWebRequest request) {
+        if (this.notModified(request, true)) {
+            return null;
+        }
+        return ResponseEntity.ok(this.concertService.getTodayConcerts());
+    }
+
+    /**
+     * endpoint to get the concerts after today in the festival time zone, answered from memory
+     *
+     * @param request for the conditional headers
+     * @return concerts ordered by day and id
+     */
+    @GetMapping(value = "/future-concerts", params = {"!cursor", "!limit"})
+    public ResponseEntity<StreamingResponseBody> getConcertsAfterToday(ServletWebRequest request) {
+        if (this.notModified(request, false)) {
+            return null;
+        }
+        return this.streamConcerts(this.concertService::streamFutureConcerts);
+    }
+
+    @GetMapping(value = "/future-concerts")
+    public ResponseEntity<ConcertPageDTO> getConcertsAfterTodayPage(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit,
+                                                                    ServletWebRequest request) {
+        int pageSize = this.checkPageSize(limit);
+        ConcertCursor after = this.decodeCursor(cursor);
+        if (this.notModified(request, true)) {
+            return null;
+        }
+        return ResponseEntity.ok(ConcertPageDTO.of(this.concertService.getFutureConcerts(after, pageSize), pageSize));
+    }
+
+    /**
+     * helper method which sets the caching headers of a list from the data version and checks the conditional
+     * headers of the request against them, without reading the db. The version also changes at midnight, when the
+     * lists relative to today roll over. Without concert.list.conditional-get the lists are sent without validators.
+     * JSON and CBOR of the same version get different ETags, so a cache never answers one with the other
+     *
+     * @param request with If-None-Match or If-Modified-Since
+     * @param negotiated true if the list is written as JSON or CBOR depending on the Accept header, false if it is
+     *                   always streamed as JSON
+     * @return true if the client's copy is current, the response is then a 304 without body
+     */
+    private boolean notModified(ServletWebRequest request, boolean negotiated) {
+        if (!this.conditionalGets) {
+            return false;
+        }
+        ConcertDataVersion version = this.concertService.getDataVersion();
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, this.listCacheControl.getHeaderValue());
+            // the same version is served as JSON or CBOR
+            request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        String eTag = negotiated && prefersCbor(request) ? version.eTag(MediaType.APPLICATION_CBOR) : version.eTag();
+        return request.checkNotModified(eTag, version.getLastModified().toEpochMilli());
+    }
+
+    /**
+     * helper method which negotiates like the message converters do: the most specific and preferred type of the
+     * Accept header decides, and JSON wins over CBOR for wildcards
+     *
+     * @param request with the Accept header
+     * @return true if the response will be CBOR
+     */
+    private static boolean prefersCbor(ServletWebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * helper method which writes concerts to the response as a JSON array while they are read from the db or the
+     * calendar
+     *
+     * @param source streams concerts into the given action
+     * @return response writing the array
+     */
+    private ResponseEntity<StreamingResponseBody> streamConcerts(Consumer<Consumer<Concert>> source) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = this.concertWriter.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                source.accept(concert -> {
+                    try {
+                        this.concertWriter.writeValue(generator, concert);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * helper method which writes a concert as a CSV row, quoting the stage when it contains a separator or quote
+     *
+     * @param writer of the response
+     * @param concert to write
+     */
+    private static void writeCsvRow(Writer writer, Concert concert) throws IOException {
+        writer.write(String.valueOf(concert.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(concert.getPerformerId()));
+        writer.write(',');
+        writer.write(String.valueOf(concert.getDay()));
+        writer.write(',');
+        String stage = concert.getStage() == null ? "" : concert.getStage();
+        if (stage.indexOf(',') >= 0 || stage.indexOf('"') >= 0 || stage.indexOf('\n') >= 0 || stage.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(stage.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(stage);
+        }
+        writer.write(',');
+        writer.write(String.valueOf(concert.getBeginTime()));
+        writer.write(',');
+        writer.write(String.valueOf(concert.getEndTime()));
+        writer.write("\r\n");
+    }
+
+    private int checkPageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private Sort parseSort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String field : sort.split(",")) {
+            boolean descending = field.startsWith("-");
+            String property = descending ? field.substring(1) : field;
+            if (!SEARCH_SORT_FIELDS.contains(property)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot sort by " + field);
+            }
+            orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+        }
+        return Sort.by(orders);
+    }
+
+    private ConcertCursor decodeCursor(String cursor) {
+        try {
+            return ConcertCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor " + cursor);
+        }
     }
 }
@@ -0,0 +1,29 @@
+package com.example.se_track_concert.controller.DTO;
+
+/**
+ * Outcome of one concert in a bulk request, index refers to the position in the request body
+ */
+public final class BulkConcertResultDTO {
+
+    private final int index;
+    private final int status;
+    private final String response;
+
+    public BulkConcertResultDTO(int index, int status, String response) {
+        this.index = index;
+        this.status = status;
+        this.response = response;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.se_track_concert.controller.DTO;
+
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.service.ConcertCursor;
+
+import java.util.List;
+
+/**
+ * One page of concerts. next holds the cursor for the following page, or null when this was the last page
+ */
+public final class ConcertPageDTO {
+
+    private final List<Concert> concerts;
+    private final String next;
+
+    public ConcertPageDTO(List<Concert> concerts, String next) {
+        this.concerts = concerts;
+        this.next = next;
+    }
+
+    /**
+     * @param concerts result of a keyset query limited to pageSize rows
+     * @param pageSize requested page size
+     * @return page with a next cursor if the page was full
+     */
+    public static ConcertPageDTO of(List<Concert> concerts, int pageSize) {
+        if (concerts.size() < pageSize) {
+            return new ConcertPageDTO(concerts, null);
+        }
+        return new ConcertPageDTO(concerts, ConcertCursor.after(concerts.get(concerts.size() - 1)).encode());
+    }
+
+    public List<Concert> getConcerts() {
+        return concerts;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
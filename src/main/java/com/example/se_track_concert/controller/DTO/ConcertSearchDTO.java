@@ -0,0 +1,76 @@
+package com.example.se_track_concert.controller.DTO;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Filters of a concert search, bound from the query string. Every filter is optional, given filters are combined
+ */
+public final class ConcertSearchDTO {
+
+    private final String stage;
+    private final List<Long> performerId;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private final LocalDate dayFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private final LocalDate dayTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+    private final LocalTime timeFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+    private final LocalTime timeTo;
+
+    public ConcertSearchDTO(String stage, List<Long> performerId, LocalDate dayFrom, LocalDate dayTo,
+                            LocalTime timeFrom, LocalTime timeTo) {
+        this.stage = stage;
+        this.performerId = performerId;
+        this.dayFrom = dayFrom;
+        this.dayTo = dayTo;
+        this.timeFrom = timeFrom;
+        this.timeTo = timeTo;
+    }
+
+    /**
+     * @return part of the stage name, case-insensitive
+     */
+    public String getStage() {
+        return stage;
+    }
+
+    /**
+     * @return ids of which the performer must be one
+     */
+    public List<Long> getPerformerId() {
+        return performerId;
+    }
+
+    /**
+     * @return first day, inclusive
+     */
+    public LocalDate getDayFrom() {
+        return dayFrom;
+    }
+
+    /**
+     * @return last day, inclusive
+     */
+    public LocalDate getDayTo() {
+        return dayTo;
+    }
+
+    /**
+     * @return earliest begin time, inclusive
+     */
+    public LocalTime getTimeFrom() {
+        return timeFrom;
+    }
+
+    /**
+     * @return latest end time, inclusive
+     */
+    public LocalTime getTimeTo() {
+        return timeTo;
+    }
+}
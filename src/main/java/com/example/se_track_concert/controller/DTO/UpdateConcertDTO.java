@@ -1,5 +1,6 @@
 package com.example.se_track_concert.controller.DTO;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import javax.validation.constraints.Positive;
@@ -18,14 +19,23 @@ public final class UpdateConcertDTO {
     private final LocalTime beginTime;
     @DateTimeFormat(style = "hh:mm")
     private final LocalTime endTime;
+    // version of the concert the client read, the update is refused when it has changed since. Optional
+    private final Long version;
 
     public UpdateConcertDTO(long id, long performerId, LocalDate day, String stage, LocalTime beginTime, LocalTime endTime) {
+        this(id, performerId, day, stage, beginTime, endTime, null);
+    }
+
+    @JsonCreator
+    public UpdateConcertDTO(long id, long performerId, LocalDate day, String stage, LocalTime beginTime, LocalTime endTime,
+                            Long version) {
         this.id = id;
         this.performerId = performerId;
         this.day = day;
         this.stage = stage;
         this.beginTime = beginTime;
         this.endTime = endTime;
+        this.version = version;
     }
 
     public long getId() {
@@ -51,4 +61,8 @@ public final class UpdateConcertDTO {
     public LocalTime getEndTime() {
         return endTime;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,155 @@
+package com.example.se_track_concert.controller;
+
+import com.example.se_track_concert.controller.DTO.JsonResponseDTO;
+import com.example.se_track_concert.controller.DTO.NewConcertDTO;
+import com.example.se_track_concert.controller.DTO.UpdateConcertDTO;
+import com.example.se_track_concert.controller.DTO.ValidReviewDTO;
+import com.example.se_track_concert.exception.ConcertHasReviewsException;
+import com.example.se_track_concert.exception.ConcertNotFoundException;
+import com.example.se_track_concert.exception.ConcertUpdateConflictException;
+import com.example.se_track_concert.exception.InvalidPerformerIdException;
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.service.ReactiveConcertService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * WebFlux version of {@link ConcertController}, active in the reactive profile. The endpoints below answer like their
+ * servlet counterparts, except that lists are neither paged nor answered with 304. /search, /export, /bulk and
+ * /stages/suggest only exist in {@link ConcertController}
+ */
+@RestController
+@RequestMapping("concert")
+@CrossOrigin
+@Profile("reactive")
+public class ReactiveConcertController {
+
+    private final ReactiveConcertService concertService;
+
+    @Autowired
+    public ReactiveConcertController(ReactiveConcertService concertService) {
+        this.concertService = concertService;
+    }
+
+    @GetMapping(value = "/all")
+    public Flux<Concert> getAllConcerts() {
+        return this.concertService.getAllConcerts();
+    }
+
+    @GetMapping(value = "/by-stage")
+    public Flux<Concert> getConcertsByStage(@RequestParam String stage) {
+        return this.concertService.getConcertsByStage(stage);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Concert> getById(@PathVariable Long id) {
+        return this.concertService.getConcertById(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Concert with id " + id + " not found")));
+    }
+
+    @PostMapping("/new")
+    public Mono<ResponseEntity<Object>> createNewConcert(@Validated @RequestBody NewConcertDTO newConcertDTO) {
+        return this.concertService.createNewConcert(newConcertDTO)
+                .map(concert -> ResponseEntity.status(HttpStatus.CREATED).build())
+                .onErrorResume(InvalidPerformerIdException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).
+                        body(new JsonResponseDTO("No performer found with id " + newConcertDTO.getPerformerId()))));
+    }
+
+    @PutMapping("/update")
+    public Mono<ResponseEntity<Object>> updateConcert(@Validated @RequestBody UpdateConcertDTO updateConcertDTO) {
+        return this.concertService.updateConcert(updateConcertDTO)
+                .map(concert -> ResponseEntity.status(HttpStatus.OK).build())
+                .onErrorResume(ConcertNotFoundException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).
+                        body(new JsonResponseDTO("Invalid concert ID"))))
+                .onErrorResume(InvalidPerformerIdException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).
+                        body(new JsonResponseDTO("No performer found with id " + updateConcertDTO.getPerformerId()))))
+                .onErrorResume(ConcertHasReviewsException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).
+                        body(new JsonResponseDTO("Concert has reviews, performer can't be changed"))))
+                .onErrorResume(ConcertUpdateConflictException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).
+                        body(new JsonResponseDTO("Concert was changed in the meantime, read it again before updating"))));
+    }
+
+    @DeleteMapping(value = "/delete")
+    public Mono<ResponseEntity<Object>> deleteConcert(@RequestParam Long id) {
+        return this.concertService.deleteConcert(id)
+                .thenReturn(ResponseEntity.status(HttpStatus.OK).build())
+                .onErrorResume(ConcertNotFoundException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).
+                        body(new JsonResponseDTO("No concert found with id " + id))));
+    }
+
+    @GetMapping(value = "/valid-review")
+    public Mono<ResponseEntity<Object>> checkIfConcertCanBeReviewed(@RequestParam Long id) {
+        return this.concertService.getConcertById(id)
+                .map(concert -> {
+                    if (concert.getDay().isAfter(this.concertService.getToday())) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).
+                                <Object>body(new JsonResponseDTO("Concert has not been performed yet, no review possible"));
+                    }
+                    return ResponseEntity.status(HttpStatus.OK).<Object>body(new ValidReviewDTO(true, concert.getPerformerId()));
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new JsonResponseDTO("No concert found with id " + id)));
+    }
+
+    @GetMapping(value = "/concerts-by-performer")
+    public Mono<ResponseEntity<Object>> getConcertsByPerformerId(@RequestParam long performerId) {
+        return this.concertService.getConcertsByPerformerId(performerId).collectList()
+                .map(concerts -> ResponseEntity.status(HttpStatus.OK).<Object>body(concerts))
+                .onErrorResume(InvalidPerformerIdException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).
+                        body(new JsonResponseDTO("No concert found with id " + performerId))));
+    }
+
+    @GetMapping(value = "/check-delete-performer")
+    public Mono<ResponseEntity<Object>> checkIfPerformerCanBeDeleted(@RequestParam long performerId) {
+        return this.concertService.getConcertsByPerformerId(performerId).hasElements()
+                .map(hasConcerts -> ResponseEntity.status(HttpStatus.OK).<Object>body(!hasConcerts))
+                .onErrorResume(InvalidPerformerIdException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).
+                        body(new JsonResponseDTO("No performer found with id " + performerId))));
+    }
+
+    /**
+     * @return concerts before today in the festival time zone (concert.time-zone), ordered by day and id
+     */
+    @GetMapping(value = "/past-concerts")
+    public Flux<Concert> getConcertsBeforeToday() {
+        return this.concertService.getPastConcerts();
+    }
+
+    /**
+     * @return today's concerts in the festival time zone (concert.time-zone), ordered by id
+     */
+    @GetMapping(value = "/today-concerts")
+    public Flux<Concert> getConcertsToday() {
+        return this.concertService.getTodayConcerts();
+    }
+
+    /**
+     * @return concerts after today in the festival time zone (concert.time-zone), ordered by day and id
+     */
+    @GetMapping(value = "/future-concerts")
+    public Flux<Concert> getConcertsAfterToday() {
+        return this.concertService.getFutureConcerts();
+    }
+
+    /**
+     * returns validation errors in the same format as {@link com.example.se_track_concert.exception.CustomExceptionHandler}
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleValidationErrors(WebExchangeBindException e) {
+        Map<String, String> errors = new HashMap<>();
+        e.getBindingResult().getAllErrors().forEach((error) ->
+                errors.put(((FieldError) error).getField(), error.getDefaultMessage()));
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.se_track_concert.exception;
+
+public class ConcertUpdateConflictException extends Throwable{
+}
@@ -1,5 +1,6 @@
 package com.example.se_track_concert.exception;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 @ControllerAdvice
+@Profile("!reactive")
 public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
 
     @Override
@@ -0,0 +1,23 @@
+package com.example.se_track_concert.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the performer or review service did not answer in time, its circuit breaker is open or too many
+ * calls to it are in flight. Unchecked, so it passes through the blocking and the reactive services alike
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String service;
+
+    public DependencyUnavailableException(String service, Throwable cause) {
+        super("The " + service + " service is unavailable", cause);
+        this.service = service;
+    }
+
+    public String getService() {
+        return service;
+    }
+}
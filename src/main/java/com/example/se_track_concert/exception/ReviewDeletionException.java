@@ -0,0 +1,17 @@
+package com.example.se_track_concert.exception;
+
+import java.util.List;
+
+public class ReviewDeletionException extends Throwable {
+
+    private final List<String> failedReviewIds;
+
+    public ReviewDeletionException(List<String> failedReviewIds) {
+        super("Could not delete reviews " + failedReviewIds);
+        this.failedReviewIds = failedReviewIds;
+    }
+
+    public List<String> getFailedReviewIds() {
+        return failedReviewIds;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.se_track_concert.grpc;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * gRPC server on its own port (concert.grpc.port, 0 picks a free one) next to the web server, serving
+ * {@link ConcertLookupGrpcService}. Calls are handled on a bounded pool of concert.grpc.threads threads because the
+ * lookups may block on the db. Disable with concert.grpc.enabled=false
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "concert.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcertGrpcServer implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcertGrpcServer.class);
+
+    private final ConcertLookupGrpcService concertLookupService;
+    private final int port;
+    private final int threads;
+    private final Duration shutdownTimeout;
+    private volatile Server server;
+    private ExecutorService executor;
+
+    @Autowired
+    public ConcertGrpcServer(ConcertLookupGrpcService concertLookupService, Environment env) {
+        this.concertLookupService = concertLookupService;
+        this.port = env.getProperty("concert.grpc.port", Integer.class, 9091);
+        this.threads = env.getProperty("concert.grpc.threads", Integer.class, 16);
+        this.shutdownTimeout = env.getProperty("concert.grpc.shutdown-timeout", Duration.class, Duration.ofSeconds(10));
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, task -> {
+            Thread thread = new Thread(task, "concert-grpc-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            this.server = NettyServerBuilder.forPort(this.port)
+                    .addService(this.concertLookupService)
+                    .executor(this.executor)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start gRPC server on port " + this.port, e);
+        }
+        LOGGER.info("gRPC server started on port {}", this.server.getPort());
+    }
+
+    /**
+     * lets running calls finish for at most concert.grpc.shutdown-timeout
+     */
+    @Override
+    public void stop() {
+        Server server = this.server;
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(this.shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        this.executor.shutdown();
+        this.server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.server != null;
+    }
+
+    /**
+     * @return port the server listens on, -1 when not running
+     */
+    public int getPort() {
+        Server server = this.server;
+        return server == null ? -1 : server.getPort();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.se_track_concert.grpc;
+
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ConcertReviewInfo;
+import com.example.se_track_concert.service.ConcertService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * gRPC variant of the lookups the review service does for every review, answered by the same {@link ConcertService}
+ * methods as the REST endpoints. Served by {@link ConcertGrpcServer}
+ */
+@Component
+@Profile("!reactive")
+public class ConcertLookupGrpcService extends ConcertLookupGrpc.ConcertLookupImplBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcertLookupGrpcService.class);
+
+    private final ConcertService concertService;
+
+    @Autowired
+    public ConcertLookupGrpcService(ConcertService concertService) {
+        this.concertService = concertService;
+    }
+
+    @Override
+    public void validateReview(ValidateReviewRequest request, StreamObserver<ValidateReviewReply> responseObserver) {
+        responseObserver.onNext(this.validate(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getConcert(GetConcertRequest request, StreamObserver<ConcertReply> responseObserver) {
+        Concert concert = this.concertService.getConcertById(request.getConcertId());
+        if (concert == null) {
+            responseObserver.onError(Status.NOT_FOUND
+                    .withDescription("Concert with id " + request.getConcertId() + " not found")
+                    .asRuntimeException());
+            return;
+        }
+        // proto3 strings cannot be null, a column without a value is left empty
+        ConcertReply.Builder reply = ConcertReply.newBuilder()
+                .setId(concert.getId())
+                .setPerformerId(concert.getPerformerId());
+        if (concert.getDay() != null) {
+            reply.setDay(concert.getDay().toString());
+        }
+        if (concert.getStage() != null) {
+            reply.setStage(concert.getStage());
+        }
+        if (concert.getBeginTime() != null) {
+            reply.setBeginTime(concert.getBeginTime().toString());
+        }
+        if (concert.getEndTime() != null) {
+            reply.setEndTime(concert.getEndTime().toString());
+        }
+        responseObserver.onNext(reply.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<ValidateReviewRequest> validateReviews(StreamObserver<ValidateReviewReply> responseObserver) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(ValidateReviewRequest request) {
+                responseObserver.onNext(validate(request));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                Status status = Status.fromThrowable(t);
+                if (status.getCode() == Status.Code.CANCELLED) {
+                    LOGGER.debug("Client cancelled review validation stream: {}", status);
+                } else {
+                    LOGGER.warn("Review validation stream failed: {}", status, t);
+                }
+                // closes the call unless the client already cancelled it, so no half-closed call is left behind
+                if (!(responseObserver instanceof ServerCallStreamObserver<ValidateReviewReply> call) || !call.isCancelled()) {
+                    responseObserver.onError(status.asRuntimeException());
+                }
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    /**
+     * helper method with the rules of GET /concert/valid-review
+     * @param request with the id of the concert
+     * @return whether the concert can be reviewed and by which performer it was given
+     */
+    private ValidateReviewReply validate(ValidateReviewRequest request) {
+        ValidateReviewReply.Builder reply = ValidateReviewReply.newBuilder().setConcertId(request.getConcertId());
+        ConcertReviewInfo concert = this.concertService.getConcertReviewInfo(request.getConcertId());
+        if (concert == null) {
+            return reply.setStatus(ValidateReviewReply.Status.NOT_FOUND).build();
+        }
+        reply.setPerformerId(concert.getPerformerId());
+        if (concert.getDay().isAfter(this.concertService.getToday())) {
+            return reply.setStatus(ValidateReviewReply.Status.NOT_PERFORMED_YET).build();
+        }
+        return reply.setStatus(ValidateReviewReply.Status.VALID).setCanBeReviewed(true).build();
+    }
+}
@@ -5,17 +5,27 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Objects;
 
+/**
+ * Concert row, mapped by JPA and, for the reactive runtime, by Spring Data R2DBC
+ */
 @Entity
 public class Concert {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    // 50 ids per round trip to the sequence, so inserts of many concerts can be batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "concert_seq")
+    @SequenceGenerator(name = "concert_seq", sequenceName = "concert_seq", allocationSize = 50)
     @Column(name = "concert_id")
+    @org.springframework.data.relational.core.mapping.Column("concert_id")
     private Long id;
     private long performerId;
     private LocalDate day;
     private String stage;
     private LocalTime beginTime;
     private LocalTime endTime;
+    // checked and incremented by every update, a concert changed since it was read is not overwritten
+    @Version
+    private long version;
 
     public Concert() {
 
@@ -29,6 +39,16 @@ public class Concert {
         this.endTime = endTime;
     }
 
+    /**
+     * detached copy, including the id and version
+     * @param concert to copy
+     */
+    public Concert(Concert concert) {
+        this(concert.getPerformerId(), concert.getDay(), concert.getStage(), concert.getBeginTime(), concert.getEndTime());
+        this.id = concert.getId();
+        this.version = concert.getVersion();
+    }
+
     public Long getId() {
         return id;
     }
@@ -77,6 +97,14 @@ public class Concert {
         this.endTime = endTime;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Concert{" +
@@ -86,6 +114,7 @@ public class Concert {
                 ", stage='" + stage + '\'' +
                 ", beginTime=" + beginTime +
                 ", endTime=" + endTime +
+                ", version=" + version +
                 '}';
     }
 
@@ -0,0 +1,25 @@
+package com.example.se_track_concert.model;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of a concert needed to decide whether it can be reviewed, read without loading the entity
+ */
+public final class ConcertReviewInfo {
+
+    private final LocalDate day;
+    private final long performerId;
+
+    public ConcertReviewInfo(LocalDate day, long performerId) {
+        this.day = day;
+        this.performerId = performerId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public long getPerformerId() {
+        return performerId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.se_track_concert.model;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Outbox row for the reviews of a deleted concert, kept until the review service has deleted them. Mapped by JPA and,
+ * for the reactive runtime, by Spring Data R2DBC
+ */
+@Entity
+@Table(name = "review_cleanup_outbox")
+@org.springframework.data.relational.core.mapping.Table("review_cleanup_outbox")
+public class ReviewCleanupTask {
+    @Id
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private long concertId;
+    private int attempts;
+    private Instant nextAttemptAt;
+    private String lastError;
+
+    protected ReviewCleanupTask() {
+
+    }
+
+    public ReviewCleanupTask(long concertId, Instant nextAttemptAt) {
+        this.concertId = concertId;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getConcertId() {
+        return concertId;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public String toString() {
+        return "ReviewCleanupTask{" +
+                "id=" + id +
+                ", concertId=" + concertId +
+                ", attempts=" + attempts +
+                ", nextAttemptAt=" + nextAttemptAt +
+                '}';
+    }
+}
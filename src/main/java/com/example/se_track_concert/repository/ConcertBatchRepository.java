@@ -0,0 +1,19 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.Concert;
+
+import java.util.List;
+
+/**
+ * Bulk writes, mixed into {@link ConcertRepository}
+ */
+public interface ConcertBatchRepository {
+
+    /**
+     * inserts the concerts without id and updates those with one in a single transaction, flushed in JDBC batches.
+     * The persistence context is cleared after every batch, so memory use does not grow with the number of concerts.
+     * A concert whose version has changed in the meantime fails the whole write with an optimistic locking failure
+     * @param concerts to write, new ones get their generated id set and updated ones their new version
+     */
+    void writeAll(List<Concert> concerts);
+}
@@ -0,0 +1,58 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+class ConcertBatchRepositoryImpl implements ConcertBatchRepository {
+
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    @Autowired
+    ConcertBatchRepositoryImpl(EntityManager entityManager, Environment env) {
+        this.entityManager = entityManager;
+        this.batchSize = env.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", Integer.class, 50);
+    }
+
+    @Override
+    @Transactional
+    public void writeAll(List<Concert> concerts) {
+        for (int start = 0; start < concerts.size(); start += this.batchSize) {
+            List<Concert> batch = concerts.subList(start, Math.min(start + this.batchSize, concerts.size()));
+            this.loadExisting(batch);
+            Map<Concert, Concert> merged = new IdentityHashMap<>();
+            for (Concert concert : batch) {
+                if (concert.getId() == null) {
+                    this.entityManager.persist(concert);
+                } else {
+                    merged.put(concert, this.entityManager.merge(concert));
+                }
+            }
+            this.entityManager.flush();
+            merged.forEach((concert, managed) -> concert.setVersion(managed.getVersion()));
+            this.entityManager.clear();
+        }
+    }
+
+    /**
+     * helper method which reads the concerts of a batch that are updated with one query, so merging them does not
+     * select them one by one
+     * @param batch of concerts to write
+     */
+    private void loadExisting(List<Concert> batch) {
+        List<Long> ids = batch.stream().map(Concert::getId).filter(Objects::nonNull).toList();
+        if (!ids.isEmpty()) {
+            this.entityManager.createQuery("select c from Concert c where c.id in :ids", Concert.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.se_track_concert.repository;
+
+import java.util.Map;
+
+/**
+ * Partial updates without loading the concert, mixed into {@link ConcertRepository}
+ */
+public interface ConcertPatchRepository {
+
+    /**
+     * sets only the given columns with one UPDATE and increments the version, if the concert still has the expected
+     * version
+     * @param id of concert
+     * @param version the concert is expected to have
+     * @param changes new values by attribute name of {@link com.example.se_track_concert.model.Concert}, not empty
+     * @return whether the concert was updated, false if it does not exist or its version has changed
+     */
+    boolean patch(long id, long version, Map<String, Object> changes);
+}
@@ -0,0 +1,33 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import java.util.Map;
+
+class ConcertPatchRepositoryImpl implements ConcertPatchRepository {
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    ConcertPatchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public boolean patch(long id, long version, Map<String, Object> changes) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Concert> update = builder.createCriteriaUpdate(Concert.class);
+        Root<Concert> root = update.from(Concert.class);
+        changes.forEach(update::set);
+        update.set(root.<Long>get("version"), builder.sum(root.get("version"), 1L))
+                .where(builder.equal(root.get("id"), id), builder.equal(root.get("version"), version));
+        return this.entityManager.createQuery(update).executeUpdate() == 1;
+    }
+}
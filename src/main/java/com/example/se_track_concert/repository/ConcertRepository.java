@@ -1,20 +1,64 @@
 package com.example.se_track_concert.repository;
 
 import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ConcertReviewInfo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ConcertRepository extends JpaRepository<Concert, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-    List<Concert> findByStageContainsIgnoreCase(String stage);
+public interface ConcertRepository extends JpaRepository<Concert, Long>, ConcertBatchRepository, ConcertPatchRepository,
+        ConcertSearchRepository {
+
+    String STREAM_FETCH_SIZE = "500";
 
     Concert findConcertById(Long id);
 
+    @Transactional
+    @Modifying
+    @Query("delete from Concert c where c.id = :id")
+    int deleteConcertById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
     List<Concert> findConcertByPerformerId(long performerId);
 
-    List<Concert> findByDayAfter(LocalDate date);
+    // single indexed probes that hydrate no entities
+
+    @Transactional(readOnly = true)
+    boolean existsByPerformerId(long performerId);
+
+    @Transactional(readOnly = true)
+    ConcertReviewInfo findReviewInfoById(Long id);
+
+    // the data version, one row that is incremented in the transaction of every write. The row stays locked until
+    // the write commits, so the versions of all replicas follow the commit order
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query(value = "update concert_data_version set version = version + 1 where id = 1", nativeQuery = true)
+    void incrementDataVersion();
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "select version from concert_data_version where id = 1", nativeQuery = true)
+    long findDataVersion();
+
+    // keyset pages, the pageable is only used to limit the number of rows
+
+    List<Concert> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    // cursor backed streams, must be consumed inside a transaction and closed afterwards
 
-    List<Concert> findByDayBefore(LocalDate date);
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    Stream<Concert> streamAllByOrderByIdAsc();
 }
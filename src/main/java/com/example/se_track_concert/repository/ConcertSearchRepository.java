@@ -0,0 +1,22 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Dynamic concert queries, mixed into {@link ConcertRepository}
+ */
+public interface ConcertSearchRepository {
+
+    /**
+     * runs the specification as one query, without the count query a Page would need
+     * @param specification filters, combined with and
+     * @param sort order of the result
+     * @param limit maximum number of concerts
+     * @return matching concerts
+     */
+    List<Concert> search(Specification<Concert> specification, Sort sort, int limit);
+}
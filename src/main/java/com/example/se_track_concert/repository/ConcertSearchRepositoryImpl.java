@@ -0,0 +1,44 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+class ConcertSearchRepositoryImpl implements ConcertSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    ConcertSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Concert> search(Specification<Concert> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Concert> query = builder.createQuery(Concert.class);
+        Root<Concert> root = query.from(Concert.class);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, builder));
+        return this.entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HINT_READONLY, true)
+                .getResultList();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Filters for {@link ConcertSearchRepository#search}. Each returns null when its argument is missing, which
+ * {@link Specification#and} ignores
+ */
+public final class ConcertSpecifications {
+
+    private ConcertSpecifications() {
+    }
+
+    public static Specification<Concert> stageContains(String stage) {
+        if (stage == null || stage.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + stage.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, builder) -> builder.like(builder.lower(root.get("stage")), pattern, '\\');
+    }
+
+    public static Specification<Concert> performerIn(Collection<Long> performerIds) {
+        if (performerIds == null || performerIds.isEmpty()) {
+            return null;
+        }
+        return (root, query, builder) -> root.get("performerId").in(performerIds);
+    }
+
+    public static Specification<Concert> dayFrom(LocalDate day) {
+        if (day == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("day"), day);
+    }
+
+    public static Specification<Concert> dayTo(LocalDate day) {
+        if (day == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("day"), day);
+    }
+
+    public static Specification<Concert> beginsNotBefore(LocalTime time) {
+        if (time == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.greaterThanOrEqualTo(root.get("beginTime"), time);
+    }
+
+    public static Specification<Concert> endsNotAfter(LocalTime time) {
+        if (time == null) {
+            return null;
+        }
+        return (root, query, builder) -> builder.lessThanOrEqualTo(root.get("endTime"), time);
+    }
+}
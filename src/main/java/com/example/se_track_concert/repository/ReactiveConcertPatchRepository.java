@@ -0,0 +1,22 @@
+package com.example.se_track_concert.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Partial updates without saving the whole concert, mixed into {@link ReactiveConcertRepository}. Non-blocking
+ * counterpart of {@link ConcertPatchRepository}
+ */
+public interface ReactiveConcertPatchRepository {
+
+    /**
+     * sets only the given columns with one UPDATE and increments the version, if the concert still has the expected
+     * version
+     * @param id of concert
+     * @param version the concert is expected to have
+     * @param changes new values by attribute name of {@link com.example.se_track_concert.model.Concert}, not empty
+     * @return Mono with whether the concert was updated, false if it does not exist or its version has changed
+     */
+    Mono<Boolean> patch(long id, long version, Map<String, Object> changes);
+}
@@ -0,0 +1,42 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+class ReactiveConcertPatchRepositoryImpl implements ReactiveConcertPatchRepository {
+
+    private final DatabaseClient databaseClient;
+    private final RelationalPersistentEntity<?> concertEntity;
+
+    @Autowired
+    ReactiveConcertPatchRepositoryImpl(DatabaseClient databaseClient, R2dbcConverter converter) {
+        this.databaseClient = databaseClient;
+        this.concertEntity = converter.getMappingContext().getRequiredPersistentEntity(Concert.class);
+    }
+
+    @Override
+    public Mono<Boolean> patch(long id, long version, Map<String, Object> changes) {
+        StringBuilder sql = new StringBuilder("update ").append(this.concertEntity.getTableName().getReference()).append(" set ");
+        changes.keySet().forEach(attribute -> sql.append(this.column(attribute)).append(" = :").append(attribute).append(", "));
+        String versionColumn = this.column("version");
+        sql.append(versionColumn).append(" = ").append(versionColumn).append(" + 1 where ")
+                .append(this.column("id")).append(" = :id and ").append(versionColumn).append(" = :version");
+        DatabaseClient.GenericExecuteSpec update = this.databaseClient.sql(sql.toString())
+                .bind("id", id)
+                .bind("version", version);
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            update = update.bind(change.getKey(), change.getValue());
+        }
+        return update.fetch().rowsUpdated().map(rows -> rows == 1);
+    }
+
+    private String column(String attribute) {
+        return this.concertEntity.getRequiredPersistentProperty(attribute).getColumnName().getReference();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * R2DBC counterpart of {@link ConcertRepository}, only available in the reactive profile
+ */
+public interface ReactiveConcertRepository extends R2dbcRepository<Concert, Long>, ReactiveConcertPatchRepository {
+
+    Flux<Concert> findAllByOrderByIdAsc();
+
+    Flux<Concert> findByStageContainingIgnoreCaseOrderByIdAsc(String stage);
+
+    Mono<Concert> findConcertById(Long id);
+
+    @Modifying
+    @Query("delete from concert where concert_id = :id")
+    Mono<Integer> deleteConcertById(@Param("id") Long id);
+
+    Flux<Concert> findConcertByPerformerId(long performerId);
+
+    Flux<Concert> findByDayAfterOrderByDayAscIdAsc(LocalDate date);
+
+    Flux<Concert> findByDayBeforeOrderByDayAscIdAsc(LocalDate date);
+
+    Flux<Concert> findByDayOrderByIdAsc(LocalDate date);
+}
@@ -0,0 +1,32 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.ReviewCleanupTask;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * R2DBC counterpart of {@link ReviewCleanupRepository}, only available in the reactive profile
+ */
+public interface ReactiveReviewCleanupRepository extends R2dbcRepository<ReviewCleanupTask, Long> {
+
+    @Query("select * from review_cleanup_outbox where next_attempt_at <= :now order by next_attempt_at limit :limit")
+    Flux<ReviewCleanupTask> findDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * see {@link ReviewCleanupRepository#claim(long, int, Instant)}
+     * @return 1 if the task was claimed, 0 if another replica claimed or finished it first
+     */
+    @Modifying
+    @Query("update review_cleanup_outbox set attempts = attempts + 1, next_attempt_at = :leaseEnd where id = :id and attempts = :attempts")
+    Mono<Integer> claim(@Param("id") long id, @Param("attempts") int attempts, @Param("leaseEnd") Instant leaseEnd);
+
+    @Modifying
+    @Query("update review_cleanup_outbox set next_attempt_at = :nextAttemptAt, last_error = :error where id = :id")
+    Mono<Integer> retryLater(@Param("id") long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+}
@@ -0,0 +1,41 @@
+package com.example.se_track_concert.repository;
+
+import com.example.se_track_concert.model.ReviewCleanupTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The outbox of review deletions, see {@link com.example.se_track_concert.service.ReviewCleanupDispatcher}
+ */
+public interface ReviewCleanupRepository extends JpaRepository<ReviewCleanupTask, Long> {
+
+    @Transactional(readOnly = true)
+    List<ReviewCleanupTask> findByNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(Instant now, Pageable pageable);
+
+    /**
+     * takes a task for one attempt, postponing it until the lease ends in case this replica stops during the attempt.
+     * Only one replica can claim an attempt, because the number of attempts has to be the one it read
+     * @return 1 if the task was claimed, 0 if another replica claimed or finished it first
+     */
+    @Transactional
+    @Modifying
+    @Query("update ReviewCleanupTask t set t.attempts = t.attempts + 1, t.nextAttemptAt = :leaseEnd where t.id = :id and t.attempts = :attempts")
+    int claim(@Param("id") long id, @Param("attempts") int attempts, @Param("leaseEnd") Instant leaseEnd);
+
+    @Transactional
+    @Modifying
+    @Query("update ReviewCleanupTask t set t.nextAttemptAt = :nextAttemptAt, t.lastError = :error where t.id = :id")
+    int retryLater(@Param("id") long id, @Param("nextAttemptAt") Instant nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ReviewCleanupTask t where t.id in :ids")
+    int deleteDone(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,91 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.repository.ConcertRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache of concerts by id. Entries are detached copies and every lookup returns a new copy, so callers
+ * can neither change the cached concert nor see it change. Concurrent misses of the same id share one query.
+ * {@link ConcertService} invalidates entries on update and delete, the ttl bounds staleness for writes it does
+ * not see
+ */
+@Component
+@Profile("!reactive")
+public class ConcertCache implements MeterBinder {
+
+    private final ConcertRepository concertRepository;
+    private final LoadingCache<Long, Concert> concertsById;
+
+    @Autowired
+    public ConcertCache(ConcertRepository concertRepository, Environment env) {
+        this.concertRepository = concertRepository;
+        this.concertsById = Caffeine.newBuilder()
+                .maximumSize(env.getProperty("concert.cache.maximum-size", Long.class, 10_000L))
+                .expireAfterWrite(env.getProperty("concert.cache.ttl", Duration.class, Duration.ofMinutes(10)))
+                .recordStats()
+                .build(this::load);
+    }
+
+    /**
+     * @param id of concert
+     * @return copy of the concert, or null if it does not exist. Unknown ids are not cached
+     */
+    public Concert get(Long id) {
+        Concert concert = this.concertsById.get(id);
+        return concert == null ? null : new Concert(concert);
+    }
+
+    /**
+     * @param id of concert
+     * @return copy of the concert if it is cached, otherwise null without querying the db
+     */
+    public Concert getIfPresent(Long id) {
+        Concert concert = this.concertsById.getIfPresent(id);
+        return concert == null ? null : new Concert(concert);
+    }
+
+    /**
+     * drops the concert, the next lookup reads it from the db again. Waits for a load of the same id that is in
+     * progress, so a value read before the write cannot outlive the invalidation
+     * @param id of changed or deleted concert
+     */
+    public void invalidate(Long id) {
+        this.concertsById.invalidate(id);
+    }
+
+    /**
+     * drops every concert, used when changes may have been missed
+     */
+    public void invalidateAll() {
+        this.concertsById.invalidateAll();
+    }
+
+    /**
+     * @return hit, miss and eviction counts
+     */
+    public CacheStats getStats() {
+        return this.concertsById.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, this.concertsById, "concert.by-id");
+    }
+
+    private Concert load(Long id) {
+        Concert concert = this.concertRepository.findConcertById(id);
+        return concert == null ? null : new Concert(concert);
+    }
+}
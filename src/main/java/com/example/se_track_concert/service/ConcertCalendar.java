@@ -0,0 +1,211 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Every concert in memory, split into past, today and future relative to the day in the festival time zone
+ * (concert.time-zone, the server's zone if not set). Each part is kept ordered by day and id, so the lists are served
+ * without a query. Holds the concerts of the {@link ConcertStore}, which keeps it current, and is rolled over to the
+ * next day by {@link ConcertService#rollOverCalendar()}
+ */
+@Component
+@Profile("!reactive")
+public class ConcertCalendar implements ConcertStore.Index {
+
+    // concerts copied per read lock when a whole part is streamed
+    private static final int STREAM_PAGE_SIZE = 500;
+    private static final Comparator<Concert> BY_DAY_AND_ID = Comparator.comparing(Concert::getDay).thenComparing(Concert::getId);
+
+    private final Clock clock;
+    private final NavigableSet<Concert> past = new TreeSet<>(BY_DAY_AND_ID);
+    private final NavigableSet<Concert> today = new TreeSet<>(BY_DAY_AND_ID);
+    private final NavigableSet<Concert> future = new TreeSet<>(BY_DAY_AND_ID);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile LocalDate day;
+
+    @Autowired
+    public ConcertCalendar(Environment env) {
+        this(Clock.system(zoneOf(env.getProperty("concert.time-zone"))));
+    }
+
+    ConcertCalendar(Clock clock) {
+        this.clock = clock;
+        this.day = LocalDate.now(clock);
+    }
+
+    /**
+     * adds the concert to the part of its day
+     * @param concert stored concert
+     */
+    @Override
+    public void added(Concert concert) {
+        this.lock.writeLock().lock();
+        try {
+            this.partitionOf(concert.getDay()).add(concert);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param concert the replaced or deleted version
+     */
+    @Override
+    public void removed(Concert concert) {
+        this.lock.writeLock().lock();
+        try {
+            this.partitionOf(concert.getDay()).remove(concert);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return current day in the festival time zone as of the last roll-over
+     */
+    public LocalDate getDay() {
+        return this.day;
+    }
+
+    /**
+     * moves the concerts of today to the past and those of the new day out of the future, if the clock has passed
+     * midnight since the last roll-over
+     * @return whether the day changed
+     */
+    public boolean rollOver() {
+        LocalDate now = LocalDate.now(this.clock);
+        if (!now.isAfter(this.day)) {
+            return false;
+        }
+        this.lock.writeLock().lock();
+        try {
+            if (!now.isAfter(this.day)) {
+                return false;
+            }
+            this.past.addAll(this.today);
+            this.today.clear();
+            while (!this.future.isEmpty() && !this.future.first().getDay().isAfter(now)) {
+                Concert concert = this.future.pollFirst();
+                (concert.getDay().isEqual(now) ? this.today : this.past).add(concert);
+            }
+            this.day = now;
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param after position to continue after, null for the first page
+     * @param limit maximum number of concerts
+     * @return copies of concerts before today, ordered by day and id
+     */
+    public List<Concert> past(ConcertCursor after, int limit) {
+        return this.page(this.past, after, limit);
+    }
+
+    /**
+     * passes copies of the concerts before today to the action, ordered by day and id, see {@link #forEach}
+     * @param action called once per concert
+     */
+    public void forEachPast(Consumer<Concert> action) {
+        this.forEach(this.past, action);
+    }
+
+    /**
+     * @return copies of today's concerts, ordered by id
+     */
+    public List<Concert> today() {
+        return this.page(this.today, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param after position to continue after, null for the first page
+     * @param limit maximum number of concerts
+     * @return copies of concerts after today, ordered by day and id
+     */
+    public List<Concert> future(ConcertCursor after, int limit) {
+        return this.page(this.future, after, limit);
+    }
+
+    /**
+     * passes copies of the concerts after today to the action, ordered by day and id, see {@link #forEach}
+     * @param action called once per concert
+     */
+    public void forEachFuture(Consumer<Concert> action) {
+        this.forEach(this.future, action);
+    }
+
+    private List<Concert> page(NavigableSet<Concert> partition, ConcertCursor after, int limit) {
+        this.lock.readLock().lock();
+        try {
+            SortedSet<Concert> concerts = after == null ? partition : partition.tailSet(probe(after), false);
+            List<Concert> page = new ArrayList<>(Math.min(limit, concerts.size()));
+            for (Concert concert : concerts) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(new Concert(concert));
+            }
+            return page;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * helper method which reads a part one page at a time and passes the page on without holding the lock, so the
+     * whole part is never copied at once and writes are not held up while the action is slow. Writes made meanwhile
+     * show like they do between the pages of a client
+     * @param partition part to read
+     * @param action called once per concert
+     */
+    private void forEach(NavigableSet<Concert> partition, Consumer<Concert> action) {
+        ConcertCursor after = null;
+        List<Concert> page;
+        do {
+            page = this.page(partition, after, STREAM_PAGE_SIZE);
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                after = ConcertCursor.after(page.get(page.size() - 1));
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
+    /**
+     * helper method which finds the part a day belongs to, caller holds the lock
+     * @param day of a concert
+     * @return past, today or future
+     */
+    private NavigableSet<Concert> partitionOf(LocalDate day) {
+        int comparison = day.compareTo(this.day);
+        return comparison < 0 ? this.past : comparison == 0 ? this.today : this.future;
+    }
+
+    private static Concert probe(ConcertCursor cursor) {
+        Concert probe = new Concert();
+        probe.setDay(cursor.getDay());
+        probe.setId(cursor.getId());
+        return probe;
+    }
+
+    /**
+     * @param timeZone value of concert.time-zone
+     * @return the festival time zone, the server's zone if not set
+     */
+    static ZoneId zoneOf(String timeZone) {
+        return timeZone == null || timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.se_track_concert.service;
+
+import java.util.List;
+
+/**
+ * Published by {@link ConcertService} after concerts were created, updated or deleted
+ */
+public final class ConcertChangedEvent {
+
+    private final long dataVersion;
+    private final List<Long> concertIds;
+
+    public ConcertChangedEvent(long dataVersion, List<Long> concertIds) {
+        this.dataVersion = dataVersion;
+        this.concertIds = List.copyOf(concertIds);
+    }
+
+    public ConcertChangedEvent(long dataVersion, Long concertId) {
+        this(dataVersion, List.of(concertId));
+    }
+
+    /**
+     * @return data version of the write, see {@link ConcertDataVersion}
+     */
+    public long getDataVersion() {
+        return dataVersion;
+    }
+
+    /**
+     * @return ids of the changed concerts
+     */
+    public List<Long> getConcertIds() {
+        return concertIds;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcertChangedEvent{dataVersion=" + dataVersion + ", concertIds=" + concertIds + '}';
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position within a list of concerts. Lists ordered by id only use the id, lists ordered by day use both
+ * the day and the id. Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+public final class ConcertCursor {
+
+    private final LocalDate day;
+    private final long id;
+
+    public ConcertCursor(LocalDate day, long id) {
+        this.day = day;
+        this.id = id;
+    }
+
+    /**
+     * @param concert last concert of a page
+     * @return cursor pointing directly after the given concert
+     */
+    public static ConcertCursor after(Concert concert) {
+        return new ConcertCursor(concert.getDay(), concert.getId());
+    }
+
+    /**
+     * @param token as returned by {@link #encode()}, may be null
+     * @return decoded cursor or null if no token was given
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static ConcertCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf('_');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor " + token);
+        }
+        try {
+            return new ConcertCursor(
+                    LocalDate.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cursor " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = this.day + "_" + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.se_track_concert.service;
+
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Version of the concerts served by this replica, moved on by {@link ConcertService} once a write, made here or
+ * announced by another replica, has been applied in memory, and at midnight when the lists relative to today roll
+ * over. Every write is numbered by the data version row of the db, so the ETag names exactly the writes this replica
+ * has applied: all up to {@code applied} and those after it that arrived out of order. Every replica that has applied
+ * the same writes gives the same ETag, and a write is never counted before the lists contain it
+ */
+public final class ConcertDataVersion {
+
+    private final LocalDate day;
+    private final long applied;
+    private final SortedSet<Long> pending;
+    private final Instant behindSince;
+    private final String tag;
+    private final long version;
+    private final Instant lastModified;
+
+    /**
+     * @param day current day in the festival time zone
+     * @param applied data version up to which every write has been applied
+     * @param version number of changes seen by this replica
+     * @param lastModified time of the last change
+     */
+    public ConcertDataVersion(LocalDate day, long applied, long version, Instant lastModified) {
+        this(day, applied, Collections.emptySortedSet(), null, version, lastModified);
+    }
+
+    private ConcertDataVersion(LocalDate day, long applied, SortedSet<Long> pending, Instant behindSince, long version,
+                               Instant lastModified) {
+        this.day = day;
+        this.applied = applied;
+        this.pending = pending;
+        this.behindSince = behindSince;
+        this.version = version;
+        this.lastModified = lastModified;
+        StringBuilder tag = new StringBuilder(Long.toString(day.toEpochDay(), 36)).append('-')
+                .append(Long.toString(applied, 36));
+        pending.forEach(dataVersion -> tag.append('+').append(Long.toString(dataVersion, 36)));
+        this.tag = tag.toString();
+    }
+
+    /**
+     * @return version of a replica that has not loaded the concerts yet
+     */
+    static ConcertDataVersion initial() {
+        return new ConcertDataVersion(LocalDate.EPOCH, 0, 0, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * @param dataVersion of a write that has been applied in memory
+     * @return the version including the write, or this version if it already did
+     */
+    ConcertDataVersion withWrite(long dataVersion) {
+        if (dataVersion <= this.applied || this.pending.contains(dataVersion)) {
+            return this;
+        }
+        TreeSet<Long> pending = new TreeSet<>(this.pending);
+        pending.add(dataVersion);
+        return this.next(this.day, this.applied, pending);
+    }
+
+    /**
+     * @param dataVersion of a snapshot of all concerts that has been loaded in memory
+     * @param day current day in the festival time zone
+     * @return the version including every write up to the snapshot
+     */
+    ConcertDataVersion withSnapshot(long dataVersion, LocalDate day) {
+        TreeSet<Long> pending = new TreeSet<>(this.pending.tailSet(dataVersion + 1));
+        return this.next(day.isAfter(this.day) ? day : this.day, Math.max(this.applied, dataVersion), pending);
+    }
+
+    /**
+     * @param day current day in the festival time zone
+     * @return the version on that day, or this version if it is not a later day
+     */
+    ConcertDataVersion withDay(LocalDate day) {
+        return day.isAfter(this.day) ? this.next(day, this.applied, new TreeSet<>(this.pending)) : this;
+    }
+
+    /**
+     * helper method which moves the writes that follow on without a gap from pending to applied. Last-Modified has a
+     * resolution of seconds, so it moves on by at least a second to stay distinct from the previous version
+     * @param day of the new version
+     * @param applied data version up to which every write has been applied
+     * @param pending writes after a gap, modified
+     * @return the version after a change
+     */
+    private ConcertDataVersion next(LocalDate day, long applied, TreeSet<Long> pending) {
+        while (!pending.isEmpty() && pending.first() == applied + 1) {
+            applied = pending.pollFirst();
+        }
+        Instant now = Instant.now();
+        Instant behindSince = pending.isEmpty() ? null
+                : applied == this.applied && this.behindSince != null ? this.behindSince : now;
+        Instant lastModified = now.truncatedTo(ChronoUnit.SECONDS);
+        return new ConcertDataVersion(day, applied, Collections.unmodifiableSortedSet(pending), behindSince,
+                this.version + 1, lastModified.isAfter(this.lastModified) ? lastModified : this.lastModified.plusSeconds(1));
+    }
+
+    /**
+     * @return strong ETag of the lists as JSON
+     */
+    public String eTag() {
+        return "\"" + this.tag + "\"";
+    }
+
+    /**
+     * @param mediaType of a representation other than JSON
+     * @return strong ETag of the lists in that representation
+     */
+    public String eTag(MediaType mediaType) {
+        return "\"" + this.tag + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    /**
+     * @return since when a write is missing before the pending ones, null if none is
+     */
+    public Instant getBehindSince() {
+        return behindSince;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
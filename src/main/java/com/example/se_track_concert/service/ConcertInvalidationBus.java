@@ -0,0 +1,283 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.repository.ConcertRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the {@link ConcertCache} and {@link ConcertStore} of every replica current. After a write commits, its data
+ * version and the ids of the changed concerts are sent with NOTIFY on the postgres instance the service already uses.
+ * Every replica LISTENs on a dedicated connection, outside the pool, re-reads the concerts other replicas changed and
+ * then counts the write in its {@link ConcertDataVersion}. After the connection was lost, or when a data version is
+ * still missing after concert.invalidation.gap-timeout, notifications may have been missed, so the cache is emptied
+ * and the store compared with the db. Enable with concert.invalidation.enabled=true
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "concert.invalidation.enabled", havingValue = "true")
+public class ConcertInvalidationBus implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcertInvalidationBus.class);
+    // postgres rejects payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final long POLL_MILLIS = 500;
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ConcertRepository concertRepository;
+    private final ConcertService concertService;
+    private final ConcertCache concertCache;
+    private final ConcertStore concertStore;
+    private final String channel;
+    private final Duration gapTimeout;
+    private final String origin = UUID.randomUUID().toString();
+    private volatile boolean running;
+    private Thread listener;
+
+    @Autowired
+    public ConcertInvalidationBus(
+            JdbcTemplate jdbcTemplate,
+            DataSourceProperties dataSourceProperties,
+            ConcertRepository concertRepository,
+            ConcertService concertService,
+            ConcertCache concertCache,
+            ConcertStore concertStore,
+            Environment env)
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.concertRepository = concertRepository;
+        this.concertService = concertService;
+        this.concertCache = concertCache;
+        this.concertStore = concertStore;
+        this.channel = env.getProperty("concert.invalidation.channel", "concert_changed");
+        this.gapTimeout = env.getProperty("concert.invalidation.gap-timeout", Duration.class, Duration.ofSeconds(10));
+    }
+
+    /**
+     * sends the change to the other replicas once the transaction of the write has committed, or right away when
+     * the write did not run in a transaction
+     * @param event ids of the changed concerts
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(ConcertChangedEvent event) {
+        for (String payload : payloads(this.origin, event.getDataVersion(), event.getConcertIds())) {
+            this.jdbcTemplate.execute("select pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+                statement.setString(1, this.channel);
+                statement.setString(2, payload);
+                return statement.execute();
+            });
+        }
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+        this.listener = new Thread(this::listen, "concert-invalidation-listener");
+        this.listener.setDaemon(true);
+        this.listener.start();
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+        if (this.listener != null) {
+            this.listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * re-reads the concerts of a notification sent by another replica with one query, and counts the write once its
+     * last notification has been handled. Malformed ids and data versions are logged and skipped; a write whose data
+     * version is skipped is caught up on by the resynchronization after concert.invalidation.gap-timeout
+     * @param payload origin, data version and ids of the changed concerts
+     */
+    void handle(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length < 3 || parts[0].equals(this.origin)) {
+            return;
+        }
+        List<Long> concertIds = new ArrayList<>();
+        for (String id : parts[2].split(",")) {
+            Long concertId = parseLong(id);
+            if (concertId == null) {
+                LOGGER.warn("Skipping malformed concert id '{}' of change notification {}", id, payload);
+            } else {
+                concertIds.add(concertId);
+            }
+        }
+        if (!concertIds.isEmpty()) {
+            this.refresh(concertIds);
+        }
+        if (!parts[1].isEmpty()) {
+            Long dataVersion = parseLong(parts[1]);
+            if (dataVersion == null) {
+                LOGGER.warn("Skipping malformed data version '{}' of change notification {}", parts[1], payload);
+            } else {
+                this.concertService.concertsChanged(dataVersion);
+            }
+        }
+    }
+
+    /**
+     * splits the ids over as few notifications as fit in the payload limit. Only the last one carries the data
+     * version, the notifications of one write arrive in order
+     * @param origin id of the sending replica, so it can skip its own notifications
+     * @param dataVersion of the write
+     * @param concertIds ids of changed concerts
+     * @return payloads of the form origin:dataVersion:id,id,... with an empty data version on all but the last
+     */
+    static List<String> payloads(String origin, long dataVersion, List<Long> concertIds) {
+        List<String> payloads = new ArrayList<>();
+        String last = origin + ':' + dataVersion + ':';
+        StringBuilder payload = new StringBuilder(origin).append("::");
+        int empty = payload.length();
+        for (Long id : concertIds) {
+            String next = id.toString();
+            if (payload.length() > empty
+                    && last.length() + payload.length() - empty + 1 + next.length() > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload.setLength(empty);
+            }
+            if (payload.length() > empty) {
+                payload.append(',');
+            }
+            payload.append(next);
+        }
+        if (payload.length() > empty) {
+            payloads.add(last + payload.substring(empty));
+        }
+        return payloads;
+    }
+
+    /**
+     * helper method which keeps a dedicated connection listening, reconnecting with back-off when it is lost
+     */
+    private void listen() {
+        Duration backoff = Duration.ofSeconds(1);
+        boolean connectedBefore = false;
+        while (this.running) {
+            try (Connection connection = DriverManager.getConnection(this.dataSourceProperties.determineUrl(),
+                    this.dataSourceProperties.determineUsername(), this.dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + this.channel);
+                }
+                LOGGER.info("Listening for concert changes on channel {}", this.channel);
+                if (connectedBefore) {
+                    this.resynchronize();
+                }
+                connectedBefore = true;
+                backoff = Duration.ofSeconds(1);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (this.running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            this.handle(notification.getParameter());
+                        }
+                    }
+                    if (this.notificationMissed()) {
+                        LOGGER.warn("Concert change notification missing for {}, resynchronizing", this.gapTimeout);
+                        this.resynchronize();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!this.running) {
+                    return;
+                }
+                LOGGER.warn("Concert change listener lost its connection, retrying in {}", backoff, e);
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            }
+        }
+    }
+
+    /**
+     * helper method which evicts the cached concerts and updates the store with the current rows, read in one query.
+     * Concerts without a row have been deleted
+     * @param concertIds of changed concerts
+     */
+    private void refresh(List<Long> concertIds) {
+        concertIds.forEach(this.concertCache::invalidate);
+        Set<Long> deleted = new HashSet<>(concertIds);
+        for (Concert concert : this.concertRepository.findAllById(concertIds)) {
+            this.concertStore.put(concert);
+            deleted.remove(concert.getId());
+        }
+        deleted.forEach(this.concertStore::remove);
+    }
+
+    /**
+     * helper method which tells whether a data version is missing for longer than a notification takes, because its
+     * notification was lost or its sender stopped before sending it
+     * @return true if the caches have to be resynchronized
+     */
+    private boolean notificationMissed() {
+        Instant behindSince = this.concertService.getDataVersion().getBehindSince();
+        return behindSince != null && behindSince.plus(this.gapTimeout).isBefore(Instant.now());
+    }
+
+    /**
+     * helper method which catches up on notifications missed while disconnected
+     */
+    private void resynchronize() {
+        this.concertCache.invalidateAll();
+        Set<Long> stale = this.concertStore.ids();
+        Set<Long> seen = new HashSet<>();
+        this.concertService.loadAllConcerts(concert -> {
+            this.concertStore.put(concert);
+            seen.add(concert.getId());
+        });
+        stale.removeAll(seen);
+        stale.forEach(this.concertStore::remove);
+        LOGGER.info("Resynchronized caches, {} concerts no longer exist", stale.size());
+    }
+
+    /**
+     * @param value part of a notification
+     * @return the number, or null if the value is not one
+     */
+    private static Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
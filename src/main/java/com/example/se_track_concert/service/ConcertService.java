@@ -1,41 +1,183 @@
 package com.example.se_track_concert.service;
 
+import com.example.se_track_concert.controller.DTO.ConcertSearchDTO;
 import com.example.se_track_concert.controller.DTO.NewConcertDTO;
 import com.example.se_track_concert.controller.DTO.UpdateConcertDTO;
 import com.example.se_track_concert.exception.ConcertHasReviewsException;
 import com.example.se_track_concert.exception.ConcertNotFoundException;
+import com.example.se_track_concert.exception.ConcertUpdateConflictException;
 import com.example.se_track_concert.exception.InvalidPerformerIdException;
 import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ConcertReviewInfo;
+import com.example.se_track_concert.model.ReviewCleanupTask;
 import com.example.se_track_concert.repository.ConcertRepository;
+import com.example.se_track_concert.repository.ReviewCleanupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.se_track_concert.repository.ConcertSpecifications.*;
 
 @Service
+@Profile("!reactive")
 public class ConcertService {
 
     private final ConcertRepository concertRepository;
     private final PerformerApiService performerApiService;
     private final ReviewApiService reviewApiService;
+    private final ReviewCleanupRepository reviewCleanupRepository;
+    private final EntityManager entityManager;
+    private final StageIndex stageIndex;
+    private final ConcertCalendar concertCalendar;
+    private final ConcertStore concertStore;
+    private final ConcertCache concertCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<ConcertDataVersion> dataVersion = new AtomicReference<>(ConcertDataVersion.initial());
 
     @Autowired
     public ConcertService(
             ConcertRepository concertRepository,
             PerformerApiService performerApiService,
-            ReviewApiService reviewApiService)
+            ReviewApiService reviewApiService,
+            ReviewCleanupRepository reviewCleanupRepository,
+            EntityManager entityManager,
+            StageIndex stageIndex,
+            ConcertCalendar concertCalendar,
+            ConcertStore concertStore,
+            ConcertCache concertCache,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager)
     {
         this.concertRepository = concertRepository;
         this.performerApiService = performerApiService;
         this.reviewApiService = reviewApiService;
+        this.reviewCleanupRepository = reviewCleanupRepository;
+        this.entityManager = entityManager;
+        this.stageIndex = stageIndex;
+        this.concertCalendar = concertCalendar;
+        this.concertStore = concertStore;
+        this.concertCache = concertCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * read before the data it versions, so a response is never labelled with a newer version than its content
+     * @return current version of the concerts, for ETags of the lists
+     */
+    public ConcertDataVersion getDataVersion() {
+        this.rollOverCalendar();
+        return this.dataVersion.get();
+    }
+
+    /**
+     * moves the data version on, once a write made here or by another replica has been applied in memory
+     * @param dataVersion of the write
+     */
+    void concertsChanged(long dataVersion) {
+        this.dataVersion.updateAndGet(version -> version.withWrite(dataVersion));
+    }
+
+    /**
+     * moves the calendar to the next day at midnight in the festival time zone. Reads roll over as well when they
+     * notice the day has changed, so a late or missed run only delays the scheduler itself
+     */
+    @Scheduled(cron = "0 0 0 * * *", zone = "${concert.time-zone:}")
+    public void rollOverCalendar() {
+        if (this.concertCalendar.rollOver()) {
+            LocalDate day = this.concertCalendar.getDay();
+            this.dataVersion.updateAndGet(version -> version.withDay(day));
+        }
+    }
+
+    /**
+     *
+     * @return current day in the festival time zone
+     */
+    public LocalDate getToday() {
+        this.rollOverCalendar();
+        return this.concertCalendar.getDay();
+    }
+
+    /**
+     * keyset page of concerts before today, ordered by day and id, answered from the calendar
+     * @param cursor position to continue after, null for the first page
+     * @param limit maximum number of concerts
+     * @return list of concerts
+     */
+    public List<Concert> getPastConcerts(ConcertCursor cursor, int limit) {
+        this.rollOverCalendar();
+        return this.concertCalendar.past(cursor, limit);
+    }
+
+    /**
+     * passes every concert before today to the action, ordered by day and id, reading the calendar one page at a time
+     * @param action called once per concert
+     */
+    public void streamPastConcerts(Consumer<Concert> action) {
+        this.rollOverCalendar();
+        this.concertCalendar.forEachPast(action);
+    }
+
+    /**
+     *
+     * @return today's concerts ordered by id, answered from the calendar
+     */
+    public List<Concert> getTodayConcerts() {
+        this.rollOverCalendar();
+        return this.concertCalendar.today();
+    }
+
+    /**
+     * keyset page of concerts after today, ordered by day and id, answered from the calendar
+     * @param cursor position to continue after, null for the first page
+     * @param limit maximum number of concerts
+     * @return list of concerts
+     */
+    public List<Concert> getFutureConcerts(ConcertCursor cursor, int limit) {
+        this.rollOverCalendar();
+        return this.concertCalendar.future(cursor, limit);
+    }
+
+    /**
+     * passes every concert after today to the action, ordered by day and id, reading the calendar one page at a time
+     * @param action called once per concert
+     */
+    public void streamFutureConcerts(Consumer<Concert> action) {
+        this.rollOverCalendar();
+        this.concertCalendar.forEachFuture(action);
     }
 
     /**
      *
      * @return List of concerts
      */
+    @Transactional(readOnly = true)
     public List<Concert> getAllConcerts() {
         return this.concertRepository.findAll();
     }
@@ -43,19 +185,43 @@ public class ConcertService {
     /**
      *
      * @param stage string to search for
-     * @return List of concerts matching criteria
+     * @return List of concerts matching criteria, answered from the stage index
      */
     public List<Concert> getConcertsByStage(String stage) {
-        return this.concertRepository.findByStageContainsIgnoreCase(stage);
+        return this.stageIndex.find(stage);
+    }
+
+    /**
+     *
+     * @param prefix typed part of a stage name
+     * @param limit maximum number of names
+     * @return stage names for autocompletion, best match first
+     */
+    public List<String> suggestStages(String prefix, int limit) {
+        return this.stageIndex.suggest(prefix, limit);
     }
 
     /**
      *
      * @param id of concert
-     * @return Concert or null
+     * @return copy of the cached concert or null
      */
     public Concert getConcertById(Long id) {
-        return this.concertRepository.findConcertById(id);
+        return this.concertCache.get(id);
+    }
+
+    /**
+     * the day and performer of a concert, taken from the concert cache when it holds the concert and otherwise
+     * read without loading the entity
+     * @param id of concert
+     * @return day and performer, or null if the concert does not exist
+     */
+    public ConcertReviewInfo getConcertReviewInfo(Long id) {
+        Concert cached = this.concertCache.getIfPresent(id);
+        if (cached != null) {
+            return new ConcertReviewInfo(cached.getDay(), cached.getPerformerId());
+        }
+        return this.concertRepository.findReviewInfoById(id);
     }
 
     /**
@@ -74,33 +240,175 @@ public class ConcertService {
                 newConcertDTO.getBeginTime(),
                 newConcertDTO.getEndTime());
 
-        this.concertRepository.save(concertToBeSaved);
+        long dataVersion = this.transactionTemplate.execute(status -> {
+            this.concertRepository.save(concertToBeSaved);
+            return this.nextDataVersion();
+        });
+        this.concertStore.put(concertToBeSaved);
+        this.concertsChanged(dataVersion);
+        this.eventPublisher.publishEvent(new ConcertChangedEvent(dataVersion, concertToBeSaved.getId()));
     }
 
     /**
-     *
+     * creates many concerts at once. Every distinct performer is checked once and all concerts with a valid
+     * performer are inserted in a single batched transaction, see {@link #saveConcerts(List)}
+     * @param newConcertDTOs DTO classes with information needed
+     * @return per DTO, in the same order, whether the concert was created, or null if its performer could not be
+     * checked because the performer service failed
+     */
+    public List<Boolean> createNewConcerts(List<NewConcertDTO> newConcertDTOs) {
+        Set<Long> performerIds = newConcertDTOs.stream().map(NewConcertDTO::getPerformerId).collect(Collectors.toSet());
+        Map<Long, Boolean> validPerformers = this.performerApiService.checkIfPerformersAreValid(performerIds);
+        List<Concert> concertsToBeSaved = new ArrayList<>();
+        List<Boolean> created = new ArrayList<>();
+        for (NewConcertDTO newConcertDTO : newConcertDTOs) {
+            Boolean valid = validPerformers.get(newConcertDTO.getPerformerId());
+            if (Boolean.TRUE.equals(valid)) {
+                concertsToBeSaved.add(new Concert(
+                        newConcertDTO.getPerformerId(),
+                        newConcertDTO.getDay(),
+                        newConcertDTO.getStage(),
+                        newConcertDTO.getBeginTime(),
+                        newConcertDTO.getEndTime()));
+            }
+            created.add(valid);
+        }
+        this.saveConcerts(concertsToBeSaved);
+        return created;
+    }
+
+    /**
+     * inserts the concerts without id and updates those with one in a single transaction, written in JDBC batches,
+     * and brings the caches, the stage index and the calendar up to date. Performers are not checked
+     * @param concerts to write, new ones get their generated id set
+     */
+    public void saveConcerts(List<Concert> concerts) {
+        if (concerts.isEmpty()) {
+            return;
+        }
+        long dataVersion = this.transactionTemplate.execute(status -> {
+            this.concertRepository.writeAll(concerts);
+            return this.nextDataVersion();
+        });
+        for (Concert concert : concerts) {
+            this.concertCache.invalidate(concert.getId());
+            this.concertStore.put(concert);
+        }
+        this.concertsChanged(dataVersion);
+        this.eventPublisher.publishEvent(new ConcertChangedEvent(dataVersion, concerts.stream().map(Concert::getId).toList()));
+    }
+
+    /**
+     * writes only the changed columns with one UPDATE, guarded by the version of the concert. The concert is compared
+     * with its copy in the calendar; the row is only read when the performer changes and has to be validated, when the
+     * calendar does not hold the concert or when the client read another version than the calendar has. When the
+     * client did not send a version and the calendar copy turns out to be stale, the changes are compared with the row
+     * and written once more
      * @param updateConcertDTO DTO class with information needed to update
      * @throws ConcertNotFoundException when concert is not found
      * @throws InvalidPerformerIdException when performer is not found
+     * @throws ConcertHasReviewsException when the performer changes and the concert has reviews
+     * @throws ConcertUpdateConflictException when the concert was changed since the client or this service read it
+     */
+    public void updateConcert(UpdateConcertDTO updateConcertDTO) throws ConcertNotFoundException, InvalidPerformerIdException, ConcertHasReviewsException, ConcertUpdateConflictException {
+        Concert concertToUpdate = this.concertStore.get(updateConcertDTO.getId());
+        if (concertToUpdate == null || performerChanges(updateConcertDTO, concertToUpdate)
+                || versionDiffers(updateConcertDTO, concertToUpdate)) {
+            concertToUpdate = this.findConcertToUpdate(updateConcertDTO);
+        }
+        long version = concertToUpdate.getVersion();
+        Map<String, Object> changes = this.compareUpdateStatement(updateConcertDTO, concertToUpdate);
+        if (changes.isEmpty()) {
+            return;
+        }
+        Long dataVersion = this.patch(updateConcertDTO.getId(), version, changes);
+        if (dataVersion == null) {
+            if (updateConcertDTO.getVersion() != null) {
+                this.throwPatchFailure(updateConcertDTO.getId());
+            }
+            concertToUpdate = this.findConcertToUpdate(updateConcertDTO);
+            version = concertToUpdate.getVersion();
+            changes = this.compareUpdateStatement(updateConcertDTO, concertToUpdate);
+            if (changes.isEmpty()) {
+                return;
+            }
+            dataVersion = this.patch(updateConcertDTO.getId(), version, changes);
+            if (dataVersion == null) {
+                this.throwPatchFailure(updateConcertDTO.getId());
+            }
+        }
+        concertToUpdate.setVersion(version + 1);
+        this.concertCache.invalidate(updateConcertDTO.getId());
+        this.concertStore.put(concertToUpdate);
+        this.concertsChanged(dataVersion);
+        this.eventPublisher.publishEvent(new ConcertChangedEvent(dataVersion, updateConcertDTO.getId()));
+    }
+
+    /**
+     * helper method which runs the guarded UPDATE and numbers it in one transaction
+     * @param id of concert
+     * @param version the concert must still have
+     * @param changes new values by attribute name
+     * @return data version of the write, or null if no row matched
+     */
+    private Long patch(long id, long version, Map<String, Object> changes) {
+        return this.transactionTemplate.execute(status ->
+                this.concertRepository.patch(id, version, changes) ? this.nextDataVersion() : null);
+    }
+
+    /**
+     * helper method which numbers a write, must be called in its transaction
+     * @return data version of the write
      */
-    public void updateConcert(UpdateConcertDTO updateConcertDTO) throws ConcertNotFoundException, InvalidPerformerIdException, ConcertHasReviewsException {
-        Concert concertToUpdate = this.concertRepository.findConcertById(updateConcertDTO.getId());
-        if (concertToUpdate == null) {
+    private long nextDataVersion() {
+        this.concertRepository.incrementDataVersion();
+        return this.concertRepository.findDataVersion();
+    }
+
+    /**
+     * helper method which reads the row to update
+     * @param updateConcertDTO with the id and the version the client read, if any
+     * @return the concert as stored
+     * @throws ConcertNotFoundException when concert is not found
+     * @throws ConcertUpdateConflictException when the client read another version
+     */
+    private Concert findConcertToUpdate(UpdateConcertDTO updateConcertDTO) throws ConcertNotFoundException, ConcertUpdateConflictException {
+        Concert concert = this.concertRepository.findConcertById(updateConcertDTO.getId());
+        if (concert == null) {
+            throw new ConcertNotFoundException();
+        }
+        if (versionDiffers(updateConcertDTO, concert)) {
+            throw new ConcertUpdateConflictException();
+        }
+        return concert;
+    }
+
+    /**
+     * helper method which tells why a guarded UPDATE changed no row
+     * @param id of concert
+     * @throws ConcertNotFoundException when the concert was deleted
+     * @throws ConcertUpdateConflictException otherwise, the version moved on
+     */
+    private void throwPatchFailure(long id) throws ConcertNotFoundException, ConcertUpdateConflictException {
+        if (!this.concertRepository.existsById(id)) {
             throw new ConcertNotFoundException();
         }
-        this.concertRepository.save(this.compareUpdateStatement(updateConcertDTO, concertToUpdate));
+        throw new ConcertUpdateConflictException();
     }
 
     /**
-     * helper method which compares the DTO update statement with the given concert and returns a concert that can be saved to the db
+     * helper method which compares the DTO update statement with the given concert, applies the differences to it and
+     * returns them. When the performer changes, the performer service has to know the new performer and the concert
+     * must not have reviews
      * @param updateConcertDTO DTO class with update statement
-     * @param concertToUpdate concert that needs to be updated
-     * @return Concert that can be saved to db
+     * @param concertToUpdate copy of the concert that needs to be updated
+     * @return new values of the changed columns by attribute name, empty if nothing changes
      * @throws InvalidPerformerIdException if performer is not found
+     * @throws ConcertHasReviewsException if the performer changes and the concert has reviews
      */
-    private Concert compareUpdateStatement(UpdateConcertDTO updateConcertDTO, Concert concertToUpdate) throws InvalidPerformerIdException, ConcertHasReviewsException {
-        if (updateConcertDTO.getPerformerId() > 0 &&
-                concertToUpdate.getPerformerId() != updateConcertDTO.getPerformerId()) {
+    Map<String, Object> compareUpdateStatement(UpdateConcertDTO updateConcertDTO, Concert concertToUpdate) throws InvalidPerformerIdException, ConcertHasReviewsException {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (performerChanges(updateConcertDTO, concertToUpdate)) {
             if (!this.performerApiService.checkIfPerformerIsValid(updateConcertDTO.getPerformerId())) {
                 throw new InvalidPerformerIdException();
             }
@@ -108,35 +416,74 @@ public class ConcertService {
                 throw new ConcertHasReviewsException();
             }
             concertToUpdate.setPerformerId(updateConcertDTO.getPerformerId());
+            changes.put("performerId", updateConcertDTO.getPerformerId());
         }
-        if (updateConcertDTO.getDay() != null && updateConcertDTO.getDay() != concertToUpdate.getDay()) {
+        if (updateConcertDTO.getDay() != null && !updateConcertDTO.getDay().equals(concertToUpdate.getDay())) {
             concertToUpdate.setDay(updateConcertDTO.getDay());
+            changes.put("day", updateConcertDTO.getDay());
         }
         if (updateConcertDTO.getStage() != null && !updateConcertDTO.getStage().equals(concertToUpdate.getStage())) {
             concertToUpdate.setStage(updateConcertDTO.getStage());
+            changes.put("stage", updateConcertDTO.getStage());
         }
-        if (updateConcertDTO.getBeginTime() != null && updateConcertDTO.getBeginTime() != concertToUpdate.getBeginTime()) {
+        if (updateConcertDTO.getBeginTime() != null && !updateConcertDTO.getBeginTime().equals(concertToUpdate.getBeginTime())) {
             concertToUpdate.setBeginTime(updateConcertDTO.getBeginTime());
+            changes.put("beginTime", updateConcertDTO.getBeginTime());
         }
-        if (updateConcertDTO.getEndTime() != null && updateConcertDTO.getEndTime() != concertToUpdate.getEndTime()) {
+        if (updateConcertDTO.getEndTime() != null && !updateConcertDTO.getEndTime().equals(concertToUpdate.getEndTime())) {
             concertToUpdate.setEndTime(updateConcertDTO.getEndTime());
+            changes.put("endTime", updateConcertDTO.getEndTime());
         }
-        return concertToUpdate;
+        return changes;
+    }
+
+    private static boolean performerChanges(UpdateConcertDTO updateConcertDTO, Concert concert) {
+        return updateConcertDTO.getPerformerId() > 0 && concert.getPerformerId() != updateConcertDTO.getPerformerId();
+    }
+
+    private static boolean versionDiffers(UpdateConcertDTO updateConcertDTO, Concert concert) {
+        return updateConcertDTO.getVersion() != null && updateConcertDTO.getVersion() != concert.getVersion();
     }
 
     /**
-     *
+     * deletes the concert and, in the same transaction, puts the deletion of its reviews in the outbox. The
+     * {@link ReviewCleanupDispatcher} deletes them later, so the review service is not waited for. The caches are
+     * only updated once the transaction has committed: until then other requests still read the row, and a copy they
+     * cache in the meantime would otherwise outlive the deletion
      * @param id of concert
      * @throws ConcertNotFoundException when concert is not found
      */
+    @Transactional
     public void deleteConcert(Long id) throws ConcertNotFoundException {
-        Concert concertToDelete = this.concertRepository.findConcertById(id);
-        if (concertToDelete == null) {
+        if (this.concertRepository.deleteConcertById(id) == 0) {
             throw new ConcertNotFoundException();
         }
-        ArrayList<String> reviewIds = this.reviewApiService.getReviewsOfPerformer(concertToDelete.getPerformerId());
-        this.reviewApiService.deleteReviews(reviewIds);
-        this.concertRepository.delete(concertToDelete);
+        this.reviewCleanupRepository.save(new ReviewCleanupTask(id, Instant.now()));
+        long dataVersion = this.nextDataVersion();
+        // announced to the other replicas after commit, see ConcertInvalidationBus
+        this.eventPublisher.publishEvent(new ConcertChangedEvent(dataVersion, id));
+        afterCommit(() -> {
+            this.concertCache.invalidate(id);
+            this.concertStore.remove(id);
+            this.concertsChanged(dataVersion);
+        });
+    }
+
+    /**
+     * helper method which runs the action once the current transaction has committed, or right away outside one
+     * @param action to run, not run when the transaction rolls back
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     /**
@@ -153,22 +500,100 @@ public class ConcertService {
     }
 
     /**
-     * find concerts after certain date
-     * @param date to compare
-     * @return list of concerts after this date
+     * checks whether a performer has concerts without loading them
+     * @param performerId of performer
+     * @return true if at least one concert has this performer
+     * @throws InvalidPerformerIdException if performer is not found
+     */
+    public boolean performerHasConcerts(long performerId) throws InvalidPerformerIdException {
+        if (!performerApiService.checkIfPerformerIsValid(performerId)) {
+            throw new InvalidPerformerIdException();
+        }
+        return this.concertRepository.existsByPerformerId(performerId);
+    }
+
+    /**
+     * keyset page of all concerts ordered by id
+     * @param cursor position to continue after, null for the first page
+     * @param limit maximum number of concerts
+     * @return list of concerts
+     */
+    @Transactional(readOnly = true)
+    public List<Concert> getAllConcerts(ConcertCursor cursor, int limit) {
+        return this.concertRepository.findByIdGreaterThanOrderByIdAsc(cursor == null ? 0 : cursor.getId(), PageRequest.ofSize(limit));
+    }
+
+    /**
+     * keyset page of concerts matching a stage, ordered by id
+     * @param stage string to search for
+     * @param cursor position to continue after, null for the first page
+     * @param limit maximum number of concerts
+     * @return list of concerts
+     */
+    public List<Concert> getConcertsByStage(String stage, ConcertCursor cursor, int limit) {
+        long after = cursor == null ? 0 : cursor.getId();
+        return this.stageIndex.find(stage).stream()
+                .filter(concert -> concert.getId() > after)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * searches concerts on any combination of filters with a single query, so the db can pick the index of the most
+     * selective filter
+     * @param search filters, missing ones are ignored
+     * @param sort order of the result, ties are broken by id
+     * @param limit maximum number of concerts
+     * @return list of concerts
+     */
+    @Transactional(readOnly = true)
+    public List<Concert> searchConcerts(ConcertSearchDTO search, Sort sort, int limit) {
+        Specification<Concert> specification = Specification.where(stageContains(search.getStage()))
+                .and(performerIn(search.getPerformerId()))
+                .and(dayFrom(search.getDayFrom()))
+                .and(dayTo(search.getDayTo()))
+                .and(beginsNotBefore(search.getTimeFrom()))
+                .and(endsNotAfter(search.getTimeTo()));
+        return this.concertRepository.search(specification, sort.and(Sort.by("id")), limit);
+    }
+
+    /**
+     * passes every concert to the action while reading from a database cursor, so memory use does not grow with the table
+     * @param action called once per concert, the concert is detached afterwards
      */
-    public List<Concert> getConcertsAfterDate(LocalDate date) {
-        return this.concertRepository.findByDayAfter(date);
+    @Transactional(readOnly = true)
+    public void streamAllConcerts(Consumer<Concert> action) {
+        try (Stream<Concert> concerts = this.concertRepository.streamAllByOrderByIdAsc()) {
+            this.forEachDetached(concerts, action);
+        }
     }
 
     /**
-     * find concerts before certain date
-     * @param date to compare
-     * @return list of concerts after this date
+     * passes every concert to the action like {@link #streamAllConcerts(Consumer)}, reading them in one snapshot
+     * together with the data version, and then moves the data version to that snapshot. Used to fill the in-memory
+     * indexes at startup and after notifications were missed
+     * @param action called once per concert, the concert is detached afterwards
      */
-    public List<Concert> getConcertsBeforeDate(LocalDate date) {
-        return this.concertRepository.findByDayBefore(date);
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void loadAllConcerts(Consumer<Concert> action) {
+        long dataVersion = this.concertRepository.findDataVersion();
+        try (Stream<Concert> concerts = this.concertRepository.streamAllByOrderByIdAsc()) {
+            this.forEachDetached(concerts, action);
+        }
+        LocalDate day = this.concertCalendar.getDay();
+        this.dataVersion.updateAndGet(version -> version.withSnapshot(dataVersion, day));
     }
 
+    /**
+     * helper method which detaches each concert once it has been handled, so the persistence context stays empty
+     * @param concerts open stream of concerts
+     * @param action called once per concert
+     */
+    private void forEachDetached(Stream<Concert> concerts, Consumer<Concert> action) {
+        concerts.forEach(concert -> {
+            action.accept(concert);
+            this.entityManager.detach(concert);
+        });
+    }
 
 }
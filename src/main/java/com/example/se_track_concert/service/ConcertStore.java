@@ -0,0 +1,122 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The one copy of every concert kept in memory. The {@link StageIndex} and the {@link ConcertCalendar} only hold
+ * references to the concerts stored here and are told about every change while the store holds its write lock, so
+ * they always index the same version of a concert. Stored concerts are never changed, a new version replaces them.
+ * Kept current by {@link ConcertService} and filled at startup by {@link StageIndexLoader}
+ */
+@Component
+public class ConcertStore {
+
+    private final Map<Long, Concert> concertsById = new HashMap<>();
+    private final List<Index> indexes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public ConcertStore(List<Index> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * adds the concert or replaces the previous version with the same id
+     * @param concert saved concert, a copy is stored
+     */
+    public void put(Concert concert) {
+        Concert copy = new Concert(concert);
+        this.lock.writeLock().lock();
+        try {
+            Concert previous = this.concertsById.put(copy.getId(), copy);
+            for (Index index : this.indexes) {
+                if (previous != null) {
+                    index.removed(previous);
+                }
+                index.added(copy);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param concertId of deleted concert
+     */
+    public void remove(Long concertId) {
+        this.lock.writeLock().lock();
+        try {
+            Concert previous = this.concertsById.remove(concertId);
+            if (previous != null) {
+                this.indexes.forEach(index -> index.removed(previous));
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param concertId of concert
+     * @return copy of the concert, or null if the store does not hold it
+     */
+    public Concert get(Long concertId) {
+        this.lock.readLock().lock();
+        try {
+            Concert concert = this.concertsById.get(concertId);
+            return concert == null ? null : new Concert(concert);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return copy of the ids of all stored concerts
+     */
+    public Set<Long> ids() {
+        this.lock.readLock().lock();
+        try {
+            return new HashSet<>(this.concertsById.keySet());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of stored concerts
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.concertsById.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * view over the stored concerts, told about every change while the store holds its write lock. An index keeps
+     * the concerts it is given as they are and must not change them
+     */
+    public interface Index {
+
+        /**
+         * @param concert stored concert
+         */
+        void added(Concert concert);
+
+        /**
+         * @param concert the version of a concert that was replaced or deleted, as it was added
+         */
+        void removed(Concert concert);
+    }
+}
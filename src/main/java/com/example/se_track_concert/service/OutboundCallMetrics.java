@@ -0,0 +1,63 @@
+package com.example.se_track_concert.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times the calls to one of the other services. Every call is recorded in the timer concert.outbound.requests,
+ * failed calls are also counted in concert.outbound.errors. Both are tagged with the service, the operation and the
+ * outcome; histogram buckets are set with the management.metrics.distribution properties
+ */
+final class OutboundCallMetrics {
+
+    static final String TIMER = "concert.outbound.requests";
+    static final String ERRORS = "concert.outbound.errors";
+
+    private final MeterRegistry registry;
+    private final String service;
+
+    OutboundCallMetrics(MeterRegistry registry, String service) {
+        this.registry = registry;
+        this.service = service;
+    }
+
+    /**
+     * @param operation name of the call, the path of the endpoint
+     * @param call request, timed from subscription until it completes, fails or is cancelled
+     * @return the call with metrics
+     */
+    <T> Mono<T> time(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(this.registry);
+            return call
+                    .doOnSuccess(value -> sample.stop(this.timer(operation, "SUCCESS", "none", "none")))
+                    .doOnError(e -> {
+                        String status = e instanceof WebClientResponseException response
+                                ? String.valueOf(response.getRawStatusCode()) : "none";
+                        sample.stop(this.timer(operation, "ERROR", status, e.getClass().getSimpleName()));
+                        Counter.builder(ERRORS)
+                                .tag("service", this.service)
+                                .tag("operation", operation)
+                                .tag("status", status)
+                                .tag("exception", e.getClass().getSimpleName())
+                                .register(this.registry)
+                                .increment();
+                    })
+                    .doOnCancel(() -> sample.stop(this.timer(operation, "CANCELLED", "none", "none")));
+        });
+    }
+
+    private Timer timer(String operation, String outcome, String status, String exception) {
+        return Timer.builder(TIMER)
+                .description("Requests to the " + this.service + " service")
+                .tag("service", this.service)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .tag("exception", exception)
+                .register(this.registry);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.exception.DependencyUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Protects the calls to one of the other services, configured with the properties &lt;service&gt;.client.*. Every
+ * attempt has a timeout and needs a permit of the bulkhead; the circuit breaker fails calls fast while the service
+ * keeps failing. Idempotent reads can be hedged: when the first attempt has not answered after the hedge delay a
+ * second one is sent and the first answer wins. A failed first attempt is not hedged, its failure is reported right
+ * away. Timeouts, an open circuit, a full bulkhead and connection failures
+ * surface as {@link DependencyUnavailableException}, error responses are passed on as they are
+ */
+final class OutboundCallPolicy {
+
+    private final String service;
+    private final Duration timeout;
+    private final Duration hedgeDelay;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final OutboundCallMetrics metrics;
+    private final MeterRegistry registry;
+
+    OutboundCallPolicy(Environment env, MeterRegistry registry, String service) {
+        String prefix = service + ".client.";
+        this.service = service;
+        this.registry = registry;
+        this.metrics = new OutboundCallMetrics(registry, service);
+        this.timeout = env.getProperty(prefix + "timeout", Duration.class, Duration.ofSeconds(2));
+        this.hedgeDelay = env.getProperty(prefix + "hedge-delay", Duration.class);
+
+        CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(env.getProperty(prefix + "circuit-breaker.failure-rate-threshold", Float.class, 50f))
+                .slidingWindowSize(env.getProperty(prefix + "circuit-breaker.sliding-window-size", Integer.class, 20))
+                .minimumNumberOfCalls(env.getProperty(prefix + "circuit-breaker.minimum-calls", Integer.class, 10))
+                .waitDurationInOpenState(env.getProperty(prefix + "circuit-breaker.wait-in-open-state", Duration.class, Duration.ofSeconds(10)))
+                .permittedNumberOfCallsInHalfOpenState(env.getProperty(prefix + "circuit-breaker.half-open-calls", Integer.class, 3))
+                // a 4xx is a valid answer of a healthy service
+                .recordException(e -> !(e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()))
+                .ignoreExceptions(BulkheadFullException.class)
+                .build();
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(circuitBreakerConfig);
+        this.circuitBreaker = circuitBreakers.circuitBreaker(service);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(registry);
+
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(env.getProperty(prefix + "bulkhead.max-concurrent-calls", Integer.class, 25))
+                // never wait for a permit, waiting would block the event loop
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(bulkheadConfig);
+        this.bulkhead = bulkheads.bulkhead(service);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+    }
+
+    /**
+     * @param operation name of the call, the path of the endpoint
+     * @param request creates the request, once per attempt
+     * @return the protected call
+     */
+    <T> Mono<T> call(String operation, Supplier<Mono<T>> request) {
+        return this.protect(this.attempt(operation, request));
+    }
+
+    /**
+     * like {@link #call(String, Supplier)}, but sends a second request when the first one is still pending after
+     * &lt;service&gt;.client.hedge-delay. Whatever the first attempt signals ends the call, so a failing service is
+     * not asked twice; a failed second attempt leaves the answer to the first. Only for requests that can safely be
+     * sent twice
+     * @param operation name of the call, the path of the endpoint
+     * @param request creates the request, once per attempt
+     * @return the protected call
+     */
+    <T> Mono<T> hedged(String operation, Supplier<Mono<T>> request) {
+        if (this.hedgeDelay == null) {
+            return this.call(operation, request);
+        }
+        Counter hedges = Counter.builder("concert.outbound.hedges")
+                .description("Second requests sent because the first one was slow")
+                .tag("service", this.service)
+                .tag("operation", operation)
+                .register(this.registry);
+        Mono<T> second = Mono.delay(this.hedgeDelay)
+                .doOnNext(tick -> hedges.increment())
+                .then(this.attempt(operation, request))
+                .onErrorResume(e -> Mono.never());
+        // the first signal wins and cancels the other attempt, the hedge before it is sent
+        return this.protect(Mono.firstWithSignal(this.attempt(operation, request), second));
+    }
+
+    /**
+     * @return how many calls of {@link #hedged(String, Supplier)} fit in the bulkhead at once, each holds up to two
+     * permits
+     */
+    int maxConcurrentHedgedCalls() {
+        int permits = this.bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+        return Math.max(1, this.hedgeDelay == null ? permits : permits / 2);
+    }
+
+    /**
+     * @return state and failure rate of the circuit breaker
+     */
+    CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    private <T> Mono<T> attempt(String operation, Supplier<Mono<T>> request) {
+        return this.metrics.time(operation, Mono.defer(request).timeout(this.timeout)
+                .transformDeferred(BulkheadOperator.of(this.bulkhead)));
+    }
+
+    private <T> Mono<T> protect(Mono<T> call) {
+        return call.transformDeferred(CircuitBreakerOperator.of(this.circuitBreaker))
+                .onErrorMap(OutboundCallPolicy::isUnavailable, e -> new DependencyUnavailableException(this.service, e));
+    }
+
+    private static boolean isUnavailable(Throwable e) {
+        return e instanceof TimeoutException || e instanceof CallNotPermittedException
+                || e instanceof BulkheadFullException || e instanceof WebClientRequestException;
+    }
+}
@@ -1,24 +1,51 @@
 package com.example.se_track_concert.service;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
- * Service class to retrieve information from performerApi
+ * Service class to retrieve information from performerApi. Validity checks are cached, concurrent checks
+ * of the same performer share one request
  */
 @Service
 public class PerformerApiService {
 
     private final WebClient webClient;
     private final Environment env;
+    private final AsyncLoadingCache<Long, Boolean> validityCache;
+    private final OutboundCallPolicy calls;
+    private final UriTemplate checkIdUri;
+    private final int checkConcurrency;
 
     @Autowired
-    public PerformerApiService(Environment env) {
+    public PerformerApiService(Environment env, WebClient downstreamWebClient, MeterRegistry meterRegistry) {
         this.env = env;
-        this.webClient = WebClient.create();
+        this.webClient = downstreamWebClient;
+        this.checkIdUri = new UriTemplate(env.getProperty("performer.api") + "check-id?id={id}");
+        this.calls = new OutboundCallPolicy(env, meterRegistry, "performer");
+        this.checkConcurrency = Math.min(env.getProperty("performer.check.concurrency", Integer.class, 8),
+                this.calls.maxConcurrentHedgedCalls());
+        this.validityCache = this.buildValidityCache();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.validityCache, "performer.validity");
     }
 
     /**
@@ -27,11 +54,99 @@ public class PerformerApiService {
      * @return boolean whether performer exists
      */
     public boolean checkIfPerformerIsValid(long performerId) {
-        String apiUrl = this.env.getProperty("performer.api") + "check-id?id=";
-        ResponseEntity<Boolean> response = webClient.get().uri(apiUrl + performerId).retrieve().toEntity(Boolean.class).block();
-        if (response != null) {
-            return Boolean.TRUE.equals(response.getBody());
+        return join(this.validityCache.get(performerId));
+    }
+
+    /**
+     * non-blocking variant of {@link #checkIfPerformerIsValid(long)}
+     * @param performerId of performer to check
+     * @return Mono emitting whether performer exists
+     */
+    public Mono<Boolean> isPerformerValid(long performerId) {
+        // copy, so a cancelled subscriber does not cancel the lookup other callers are waiting for
+        return Mono.fromFuture(this.validityCache.get(performerId).copy());
+    }
+
+    /**
+     * checks several performers at once, performers that are not cached are requested concurrently, with at most
+     * performer.check.concurrency requests in flight and never more than the bulkhead admits. Each check succeeds or
+     * fails on its own
+     * @param performerIds of performers to check
+     * @return map with whether each performer exists, performers whose check failed are left out
+     */
+    public Map<Long, Boolean> checkIfPerformersAreValid(Collection<Long> performerIds) {
+        Map<Long, Boolean> validity = Flux.fromIterable(new HashSet<>(performerIds))
+                .flatMap(performerId -> this.isPerformerValid(performerId)
+                        .map(valid -> Map.entry(performerId, valid))
+                        // reported for this performer only, the failure is counted by the outbound call metrics
+                        .onErrorResume(e -> Mono.empty()), this.checkConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+        return validity == null ? Map.of() : validity;
+    }
+
+    /**
+     * @return hit, miss and eviction counts of the validity cache
+     */
+    public CacheStats getValidityCacheStats() {
+        return this.validityCache.synchronous().stats();
+    }
+
+    /**
+     * helper method which waits for a cache lookup and rethrows the failure of the request itself
+     * @param lookup pending cache lookup
+     * @return result of the lookup
+     */
+    private static <T> T join(CompletableFuture<T> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
-        return false;
+    }
+
+    /**
+     * helper method which asks performerApi whether the performer exists
+     * @param performerId of performer to check
+     * @return Mono emitting whether performer exists
+     */
+    private Mono<Boolean> requestPerformerValidity(long performerId) {
+        URI uri = this.checkIdUri.expand(performerId);
+        return this.calls.hedged("check-id", () -> webClient.get().uri(uri).retrieve().toEntity(Boolean.class))
+                .map(response -> Boolean.TRUE.equals(response.getBody()))
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * helper method which builds the validity cache. Unknown performers expire sooner than known ones, so a
+     * performer that is created shortly after a failed check becomes usable quickly
+     * @return cache loading validity from performerApi
+     */
+    private AsyncLoadingCache<Long, Boolean> buildValidityCache() {
+        long ttl = this.env.getProperty("performer.cache.ttl", Duration.class, Duration.ofMinutes(10)).toNanos();
+        long negativeTtl = this.env.getProperty("performer.cache.negative-ttl", Duration.class, Duration.ofSeconds(30)).toNanos();
+        return Caffeine.newBuilder()
+                .maximumSize(this.env.getProperty("performer.cache.maximum-size", Long.class, 10_000L))
+                .expireAfter(new Expiry<Long, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(Long performerId, Boolean valid, long currentTime) {
+                        return valid ? ttl : negativeTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long performerId, Boolean valid, long currentTime, long currentDuration) {
+                        return valid ? ttl : negativeTtl;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long performerId, Boolean valid, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync((performerId, executor) -> this.requestPerformerValidity(performerId).toFuture());
     }
 }
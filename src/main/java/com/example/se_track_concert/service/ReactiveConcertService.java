@@ -0,0 +1,266 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.controller.DTO.NewConcertDTO;
+import com.example.se_track_concert.controller.DTO.UpdateConcertDTO;
+import com.example.se_track_concert.exception.ConcertHasReviewsException;
+import com.example.se_track_concert.exception.ConcertNotFoundException;
+import com.example.se_track_concert.exception.ConcertUpdateConflictException;
+import com.example.se_track_concert.exception.InvalidPerformerIdException;
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ReviewCleanupTask;
+import com.example.se_track_concert.repository.ReactiveConcertRepository;
+import com.example.se_track_concert.repository.ReactiveReviewCleanupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link ConcertService} used by the reactive profile. Failures are signalled
+ * with the same exceptions, as error signals instead of thrown exceptions
+ */
+@Service
+@Profile("reactive")
+public class ReactiveConcertService {
+
+    private final ReactiveConcertRepository concertRepository;
+    private final ReactiveReviewCleanupRepository reviewCleanupRepository;
+    private final PerformerApiService performerApiService;
+    private final ReviewApiService reviewApiService;
+    private final TransactionalOperator transactionalOperator;
+    private final Clock clock;
+
+    @Autowired
+    public ReactiveConcertService(
+            ReactiveConcertRepository concertRepository,
+            ReactiveReviewCleanupRepository reviewCleanupRepository,
+            PerformerApiService performerApiService,
+            ReviewApiService reviewApiService,
+            TransactionalOperator transactionalOperator,
+            Environment env)
+    {
+        this(concertRepository, reviewCleanupRepository, performerApiService, reviewApiService, transactionalOperator,
+                Clock.system(ConcertCalendar.zoneOf(env.getProperty("concert.time-zone"))));
+    }
+
+    ReactiveConcertService(
+            ReactiveConcertRepository concertRepository,
+            ReactiveReviewCleanupRepository reviewCleanupRepository,
+            PerformerApiService performerApiService,
+            ReviewApiService reviewApiService,
+            TransactionalOperator transactionalOperator,
+            Clock clock)
+    {
+        this.concertRepository = concertRepository;
+        this.reviewCleanupRepository = reviewCleanupRepository;
+        this.performerApiService = performerApiService;
+        this.reviewApiService = reviewApiService;
+        this.transactionalOperator = transactionalOperator;
+        this.clock = clock;
+    }
+
+    /**
+     *
+     * @return Flux of concerts ordered by id
+     */
+    public Flux<Concert> getAllConcerts() {
+        return this.concertRepository.findAllByOrderByIdAsc();
+    }
+
+    /**
+     *
+     * @param stage string to search for
+     * @return Flux of concerts matching criteria
+     */
+    public Flux<Concert> getConcertsByStage(String stage) {
+        return this.concertRepository.findByStageContainingIgnoreCaseOrderByIdAsc(stage);
+    }
+
+    /**
+     *
+     * @param id of concert
+     * @return Mono with the concert, empty if it does not exist
+     */
+    public Mono<Concert> getConcertById(Long id) {
+        return this.concertRepository.findConcertById(id);
+    }
+
+    /**
+     *
+     * @param newConcertDTO DTO class with information needed
+     * @return Mono with the saved concert, or an InvalidPerformerIdException if performer is not found
+     */
+    public Mono<Concert> createNewConcert(NewConcertDTO newConcertDTO) {
+        return this.performerApiService.isPerformerValid(newConcertDTO.getPerformerId())
+                .flatMap(valid -> {
+                    if (!valid) {
+                        return Mono.error(new InvalidPerformerIdException());
+                    }
+                    return this.concertRepository.save(new Concert(
+                            newConcertDTO.getPerformerId(),
+                            newConcertDTO.getDay(),
+                            newConcertDTO.getStage(),
+                            newConcertDTO.getBeginTime(),
+                            newConcertDTO.getEndTime()));
+                });
+    }
+
+    /**
+     * writes only the changed columns with one UPDATE, guarded by the version of the concert like
+     * {@link ConcertService#updateConcert(UpdateConcertDTO)}. When the client did not send a version and the concert
+     * changed between reading and writing it, it is read and written once more
+     * @param updateConcertDTO DTO class with information needed to update
+     * @return Mono with the updated concert, or a ConcertNotFoundException, InvalidPerformerIdException,
+     * ConcertHasReviewsException or ConcertUpdateConflictException if the concert no longer has the given version
+     */
+    public Mono<Concert> updateConcert(UpdateConcertDTO updateConcertDTO) {
+        return this.updateConcert(updateConcertDTO, updateConcertDTO.getVersion() == null);
+    }
+
+    private Mono<Concert> updateConcert(UpdateConcertDTO updateConcertDTO, boolean retry) {
+        return this.concertRepository.findConcertById(updateConcertDTO.getId())
+                .switchIfEmpty(Mono.error(new ConcertNotFoundException()))
+                .flatMap(concertToUpdate -> updateConcertDTO.getVersion() == null || updateConcertDTO.getVersion() == concertToUpdate.getVersion()
+                        ? Mono.just(concertToUpdate)
+                        : Mono.error(new ConcertUpdateConflictException()))
+                .flatMap(concertToUpdate -> {
+                    long version = concertToUpdate.getVersion();
+                    return this.compareUpdateStatement(updateConcertDTO, concertToUpdate)
+                            .flatMap(changes -> changes.isEmpty()
+                                    ? Mono.just(concertToUpdate)
+                                    : this.concertRepository.patch(updateConcertDTO.getId(), version, changes)
+                                    .flatMap(updated -> {
+                                        if (updated) {
+                                            concertToUpdate.setVersion(version + 1);
+                                            return Mono.just(concertToUpdate);
+                                        }
+                                        return retry ? this.updateConcert(updateConcertDTO, false) : this.patchFailure(updateConcertDTO.getId());
+                                    }));
+                });
+    }
+
+    /**
+     * helper method which tells why a guarded UPDATE changed no row
+     * @param id of concert
+     * @return Mono with a ConcertNotFoundException when the concert was deleted, a ConcertUpdateConflictException
+     * otherwise
+     */
+    private Mono<Concert> patchFailure(long id) {
+        return this.concertRepository.existsById(id)
+                .flatMap(exists -> Mono.<Concert>error(exists ? new ConcertUpdateConflictException() : new ConcertNotFoundException()));
+    }
+
+    /**
+     * helper method which compares the DTO update statement with the given concert, applies the differences to it and
+     * returns them. When the performer changes, the performer check and the review check run concurrently
+     * @param updateConcertDTO DTO class with update statement
+     * @param concertToUpdate concert that needs to be updated
+     * @return Mono with the new values of the changed columns by attribute name, empty if nothing changes
+     */
+    private Mono<Map<String, Object>> compareUpdateStatement(UpdateConcertDTO updateConcertDTO, Concert concertToUpdate) {
+        Mono<Map<String, Object>> checked = Mono.fromSupplier(LinkedHashMap::new);
+        if (updateConcertDTO.getPerformerId() > 0 &&
+                concertToUpdate.getPerformerId() != updateConcertDTO.getPerformerId()) {
+            checked = Mono.zip(
+                    this.performerApiService.isPerformerValid(updateConcertDTO.getPerformerId()),
+                    this.reviewApiService.concertHasReviews(concertToUpdate.getId()))
+                    .flatMap(checks -> {
+                        if (!checks.getT1()) {
+                            return Mono.error(new InvalidPerformerIdException());
+                        }
+                        if (checks.getT2()) {
+                            return Mono.error(new ConcertHasReviewsException());
+                        }
+                        concertToUpdate.setPerformerId(updateConcertDTO.getPerformerId());
+                        Map<String, Object> changes = new LinkedHashMap<>();
+                        changes.put("performerId", updateConcertDTO.getPerformerId());
+                        return Mono.just(changes);
+                    });
+        }
+        return checked.map(changes -> {
+            if (updateConcertDTO.getDay() != null && !updateConcertDTO.getDay().equals(concertToUpdate.getDay())) {
+                concertToUpdate.setDay(updateConcertDTO.getDay());
+                changes.put("day", updateConcertDTO.getDay());
+            }
+            if (updateConcertDTO.getStage() != null && !updateConcertDTO.getStage().equals(concertToUpdate.getStage())) {
+                concertToUpdate.setStage(updateConcertDTO.getStage());
+                changes.put("stage", updateConcertDTO.getStage());
+            }
+            if (updateConcertDTO.getBeginTime() != null && !updateConcertDTO.getBeginTime().equals(concertToUpdate.getBeginTime())) {
+                concertToUpdate.setBeginTime(updateConcertDTO.getBeginTime());
+                changes.put("beginTime", updateConcertDTO.getBeginTime());
+            }
+            if (updateConcertDTO.getEndTime() != null && !updateConcertDTO.getEndTime().equals(concertToUpdate.getEndTime())) {
+                concertToUpdate.setEndTime(updateConcertDTO.getEndTime());
+                changes.put("endTime", updateConcertDTO.getEndTime());
+            }
+            return changes;
+        });
+    }
+
+    /**
+     * deletes the concert and, in the same transaction, puts the deletion of its reviews in the outbox, like
+     * {@link ConcertService#deleteConcert(Long)}. The {@link ReactiveReviewCleanupDispatcher} deletes them later
+     * @param id of concert
+     * @return Mono completing once the transaction has committed, or a ConcertNotFoundException
+     */
+    public Mono<Void> deleteConcert(Long id) {
+        return this.concertRepository.deleteConcertById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new ConcertNotFoundException())
+                        : this.reviewCleanupRepository.save(new ReviewCleanupTask(id, this.clock.instant())))
+                .then()
+                .as(this.transactionalOperator::transactional);
+    }
+
+    /**
+     * returns concerts with a certain performer id
+     * @param performerId of performer
+     * @return Flux of concerts, or an InvalidPerformerIdException if performer is not found
+     */
+    public Flux<Concert> getConcertsByPerformerId(long performerId) {
+        return this.performerApiService.isPerformerValid(performerId)
+                .flatMapMany(valid -> valid
+                        ? this.concertRepository.findConcertByPerformerId(performerId)
+                        : Flux.error(new InvalidPerformerIdException()));
+    }
+
+    /**
+     * @return the current day in the festival time zone (concert.time-zone)
+     */
+    public LocalDate getToday() {
+        return LocalDate.now(this.clock);
+    }
+
+    /**
+     * find today's concerts in the festival time zone, like {@link ConcertCalendar}
+     * @return Flux of concerts ordered by id
+     */
+    public Flux<Concert> getTodayConcerts() {
+        return this.concertRepository.findByDayOrderByIdAsc(this.getToday());
+    }
+
+    /**
+     * find concerts after today in the festival time zone, like {@link ConcertCalendar}
+     * @return Flux of concerts ordered by day and id
+     */
+    public Flux<Concert> getFutureConcerts() {
+        return this.concertRepository.findByDayAfterOrderByDayAscIdAsc(this.getToday());
+    }
+
+    /**
+     * find concerts before today in the festival time zone, like {@link ConcertCalendar}
+     * @return Flux of concerts ordered by day and id
+     */
+    public Flux<Concert> getPastConcerts() {
+        return this.concertRepository.findByDayBeforeOrderByDayAscIdAsc(this.getToday());
+    }
+}
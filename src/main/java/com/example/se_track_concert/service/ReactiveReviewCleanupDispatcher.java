@@ -0,0 +1,107 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.ReviewCleanupTask;
+import com.example.se_track_concert.repository.ReactiveReviewCleanupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Non-blocking counterpart of {@link ReviewCleanupDispatcher} used by the reactive profile, with the same properties
+ * and back-off. The reviews of each due task are deleted with their own call to the review service
+ */
+@Component
+@Profile("reactive")
+@ConditionalOnProperty(name = "review.cleanup.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveReviewCleanupDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveReviewCleanupDispatcher.class);
+
+    private final ReactiveReviewCleanupRepository reviewCleanupRepository;
+    private final ReviewApiService reviewApiService;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    @Autowired
+    public ReactiveReviewCleanupDispatcher(ReactiveReviewCleanupRepository reviewCleanupRepository,
+                                           ReviewApiService reviewApiService, Environment env) {
+        this(reviewCleanupRepository, reviewApiService, env, Clock.systemUTC());
+    }
+
+    ReactiveReviewCleanupDispatcher(ReactiveReviewCleanupRepository reviewCleanupRepository,
+                                    ReviewApiService reviewApiService, Environment env, Clock clock) {
+        this.reviewCleanupRepository = reviewCleanupRepository;
+        this.reviewApiService = reviewApiService;
+        this.clock = clock;
+        this.batchSize = env.getProperty("review.cleanup.batch-size", Integer.class, 20);
+        this.lease = env.getProperty("review.cleanup.lease", Duration.class, Duration.ofMinutes(1));
+        this.initialBackoff = env.getProperty("review.cleanup.initial-backoff", Duration.class, Duration.ofSeconds(5));
+        this.maxBackoff = env.getProperty("review.cleanup.max-backoff", Duration.class, Duration.ofMinutes(10));
+    }
+
+    /**
+     * drains the due tasks batch by batch. Runs on the scheduler thread, not on an event loop, so it waits for each
+     * batch
+     */
+    @Scheduled(fixedDelayString = "${review.cleanup.interval:PT2S}")
+    public void dispatch() {
+        while (this.dispatchBatch().blockOptional().orElse(0) == this.batchSize) {
+            LOGGER.debug("Review cleanup batch full, taking the next one");
+        }
+    }
+
+    /**
+     * @return Mono with the number of due tasks found, whether or not they succeeded
+     */
+    Mono<Integer> dispatchBatch() {
+        Instant now = this.clock.instant();
+        return this.reviewCleanupRepository.findDue(now, this.batchSize)
+                .concatMap(task -> this.reviewCleanupRepository.claim(task.getId(), task.getAttempts(), now.plus(this.lease))
+                        .filter(claimed -> claimed == 1)
+                        .flatMap(claimed -> this.attempt(task))
+                        .thenReturn(task))
+                .count()
+                .map(Long::intValue);
+    }
+
+    /**
+     * helper method which deletes the reviews of a claimed task and then the task, or postpones it
+     * @param task claimed task, as read before it was claimed
+     * @return Mono completing once the task is done or postponed
+     */
+    private Mono<Void> attempt(ReviewCleanupTask task) {
+        return this.reviewApiService.reviewIdsOfConcert(task.getConcertId())
+                .flatMap(reviewIds -> this.reviewApiService.removeReviews(reviewIds)
+                        .doOnNext(deleted -> this.reviewApiService.recordReviewsOfDeletedConcert(reviewIds.size())))
+                .then(Mono.defer(() -> this.reviewCleanupRepository.deleteById(task.getId())))
+                .onErrorResume(e -> this.retryLater(task, e.getMessage()));
+    }
+
+    /**
+     * helper method which postpones a claimed task, waiting twice as long after every failed attempt
+     * @param task that failed, as read before it was claimed
+     * @param error reason, kept with the task
+     * @return Mono completing once the task is postponed
+     */
+    private Mono<Void> retryLater(ReviewCleanupTask task, String error) {
+        int attempts = task.getAttempts() + 1;
+        Duration backoff = ReviewCleanupDispatcher.backoff(attempts, this.initialBackoff, this.maxBackoff);
+        LOGGER.warn("Reviews of deleted concert {} not deleted after {} attempts, retrying in {}: {}",
+                task.getConcertId(), attempts, backoff, error);
+        return this.reviewCleanupRepository.retryLater(task.getId(), this.clock.instant().plus(backoff),
+                ReviewCleanupDispatcher.truncate(error)).then();
+    }
+}
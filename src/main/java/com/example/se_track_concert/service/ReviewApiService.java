@@ -1,14 +1,27 @@
 package com.example.se_track_concert.service;
 
+import com.example.se_track_concert.exception.ReviewDeletionException;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.codec.DecodingException;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriTemplate;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service to communicate with reviewApi
@@ -19,13 +32,29 @@ public class ReviewApiService {
     private final WebClient webClient;
     private final Environment env;
 
-    private final String reviewApi;
+    private final UriTemplate reviewsByConcertUri;
+    private final UriTemplate deleteReviewUri;
+    private final URI deleteBatchUri;
+    private final int deleteConcurrency;
+    private final AtomicBoolean batchDeleteAvailable;
+    private final OutboundCallPolicy calls;
+    private final DistributionSummary deletedReviews;
 
     @Autowired
-    public ReviewApiService(Environment env) {
+    public ReviewApiService(Environment env, WebClient downstreamWebClient, MeterRegistry meterRegistry) {
         this.env = env;
-        this.reviewApi = this.env.getProperty("review.api");
-        this.webClient = WebClient.create();
+        this.calls = new OutboundCallPolicy(env, meterRegistry, "review");
+        this.deletedReviews = DistributionSummary.builder("concert.reviews.deleted")
+                .description("Reviews deleted together with a concert")
+                .baseUnit("reviews")
+                .register(meterRegistry);
+        String reviewApi = this.env.getProperty("review.api");
+        this.reviewsByConcertUri = new UriTemplate(reviewApi + "review-by-concert?concertId={concertId}");
+        this.deleteReviewUri = new UriTemplate(reviewApi + "delete?reviewId={reviewId}");
+        this.deleteBatchUri = URI.create(reviewApi + "delete-batch");
+        this.deleteConcurrency = this.env.getProperty("review.delete.concurrency", Integer.class, 8);
+        this.batchDeleteAvailable = new AtomicBoolean(this.env.getProperty("review.delete.batch-enabled", Boolean.class, true));
+        this.webClient = downstreamWebClient;
     }
 
     /**
@@ -34,40 +63,159 @@ public class ReviewApiService {
      * @return boolean whether there are concerts or not
      */
     public boolean checkIfConcertHasReviews(long concertId) {
-        String getReviewsByConcertUri = this.reviewApi + "review-by-concert?concertId=";
-        Mono<Object[]> response = webClient.get().uri(getReviewsByConcertUri + concertId).
-                accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(Object[].class).log();
-        Object[] objects = response.block();
-        assert objects != null;
-        return objects.length > 0;
+        return Boolean.TRUE.equals(this.concertHasReviews(concertId).block());
     }
 
     /**
-     * retrieves reviews associated with a performer
-     * @param performerId of performer
-     * @return list of reviews
+     * non-blocking variant of {@link #checkIfConcertHasReviews(long)}
+     * @param concertId of concert to check
+     * @return Mono emitting whether there are reviews or not
+     */
+    public Mono<Boolean> concertHasReviews(long concertId) {
+        URI uri = this.reviewsByConcertUri.expand(concertId);
+        return this.calls.hedged("review-by-concert", () -> webClient.get().uri(uri).retrieve().bodyToMono(ReviewReference[].class))
+                .map(reviews -> reviews.length > 0)
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * retrieves the reviews of a concert
+     * @param concertId of concert
+     * @return list of review ids
+     */
+    public List<String> getReviewsOfConcert(long concertId) {
+        List<String> reviewIds = this.reviewIdsOfConcert(concertId).block();
+        return reviewIds == null ? List.of() : reviewIds;
+    }
+
+    /**
+     * non-blocking variant of {@link #getReviewsOfConcert(long)}
+     * @param concertId of concert
+     * @return Mono emitting the list of review ids, or a DecodingException if a review has no id
+     */
+    public Mono<List<String>> reviewIdsOfConcert(long concertId) {
+        URI uri = this.reviewsByConcertUri.expand(concertId);
+        return this.calls.hedged("review-by-concert", () -> webClient.get().uri(uri).retrieve().bodyToMono(ReviewReference[].class))
+                .map(reviews -> reviewIds(concertId, reviews))
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * deletes reviews. A single batch request is used when reviewApi supports it, otherwise the reviews are deleted
+     * one by one with at most review.delete.concurrency requests in flight. Reviews that no longer exist are skipped
+     * @param reviewIds reviewId's to delete
+     * @return number of reviews deleted
+     * @throws ReviewDeletionException if any review could not be deleted, after all other deletes have finished
+     */
+    public int deleteReviews(List<String> reviewIds) throws ReviewDeletionException {
+        try {
+            Integer deleted = this.removeReviews(reviewIds).block();
+            return deleted == null ? 0 : deleted;
+        } catch (RuntimeException e) {
+            if (Exceptions.unwrap(e) instanceof ReviewDeletionException reviewDeletionException) {
+                throw reviewDeletionException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * non-blocking variant of {@link #deleteReviews(List)}
+     * @param reviewIds reviewId's to delete
+     * @return Mono emitting the number of reviews deleted, or a ReviewDeletionException if any review could not be deleted
+     */
+    public Mono<Integer> removeReviews(List<String> reviewIds) {
+        if (reviewIds.isEmpty()) {
+            return Mono.just(0);
+        }
+        Mono<Boolean> batchDeleted = this.batchDeleteAvailable.get() ? this.requestBatchDelete(reviewIds) : Mono.just(false);
+        return batchDeleted.flatMap(deleted -> deleted ? Mono.just(reviewIds.size()) : this.deleteOneByOne(reviewIds));
+    }
+
+    /**
+     * records how many reviews a deleted concert had, once they are all gone. The reviews of several concerts may be
+     * deleted with one call, so the callers record them per concert
+     * @param reviews number of reviews of the concert
+     */
+    public void recordReviewsOfDeletedConcert(int reviews) {
+        this.deletedReviews.record(reviews);
+    }
+
+    /**
+     * helper method which deletes reviews with one request each
+     * @param reviewIds reviewId's to delete
+     * @return Mono emitting the number of reviews deleted, or a ReviewDeletionException if any review could not be deleted
+     */
+    private Mono<Integer> deleteOneByOne(List<String> reviewIds) {
+        List<String> failedReviewIds = Collections.synchronizedList(new ArrayList<>());
+        return Flux.fromIterable(reviewIds)
+                .flatMap(reviewId -> this.calls.call("delete", () -> webClient.delete().uri(this.deleteReviewUri.expand(reviewId)).retrieve().toBodilessEntity())
+                        .thenReturn(true)
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.just(false))
+                        .onErrorResume(e -> {
+                            failedReviewIds.add(reviewId);
+                            return Mono.just(false);
+                        }), this.deleteConcurrency)
+                .filter(Boolean::booleanValue)
+                .count()
+                .flatMap(deleted -> failedReviewIds.isEmpty()
+                        ? Mono.just(deleted.intValue())
+                        : Mono.error(new ReviewDeletionException(List.copyOf(failedReviewIds))));
+    }
+
+    /**
+     * helper method which deletes all reviews in one request. If reviewApi does not know the batch endpoint it is
+     * not tried again
+     * @param reviewIds reviewId's to delete
+     * @return Mono emitting whether the batch was deleted
+     */
+    private Mono<Boolean> requestBatchDelete(List<String> reviewIds) {
+        return this.calls.call("delete-batch", () -> webClient.post().uri(this.deleteBatchUri).contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(reviewIds).retrieve().toBodilessEntity())
+                .thenReturn(true)
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode() == HttpStatus.NOT_FOUND || e.getStatusCode() == HttpStatus.METHOD_NOT_ALLOWED
+                            || e.getStatusCode() == HttpStatus.NOT_IMPLEMENTED) {
+                        this.batchDeleteAvailable.set(false);
+                    }
+                    return Mono.just(false);
+                })
+                .onErrorReturn(false);
+    }
+
+    /**
+     * helper method which takes the ids of the reviews. A review without id means the response is not what this
+     * service expects; skipping it would let the cleanup of a deleted concert finish without deleting the review
+     * @param concertId of concert
+     * @param reviews of the concert
+     * @return list of review ids
      */
-    public ArrayList<String> getReviewsOfPerformer(long performerId) {
-        String getReviewIdsByPerformerUri = this.reviewApi + "id-by-performer?performerId=";
-        Mono<Object[]> response = webClient.get().uri(getReviewIdsByPerformerUri + performerId).accept(MediaType.APPLICATION_JSON).retrieve().bodyToMono(Object[].class).log();
-        Object[] objects = response.block();
-        ArrayList<String> reviewIds = new ArrayList<>();
-        if (objects != null) {
-            for (Object object: objects) {
-                reviewIds.add(object.toString());
+    private static List<String> reviewIds(long concertId, ReviewReference[] reviews) {
+        List<String> reviewIds = new ArrayList<>(reviews.length);
+        for (ReviewReference review : reviews) {
+            if (review.getId() == null) {
+                throw new DecodingException("Review without id among the reviews of concert " + concertId);
             }
+            reviewIds.add(review.getId());
         }
         return reviewIds;
     }
 
     /**
-     * deletes reviews
-     * @param reviewIds revieId's to delete
+     * a review as far as this service needs it, which is to count them and to know their id. Its other fields are
+     * skipped while decoding
      */
-    public void deleteReviews(ArrayList<String> reviewIds) {
-        String deleteReviewUri = reviewApi + "delete?reviewId=";
-        for (String reviewId: reviewIds) {
-            webClient.delete().uri(deleteReviewUri + reviewId).retrieve().toEntity(ResponseEntity.class).block();
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class ReviewReference {
+
+        private String id;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
         }
     }
 }
@@ -0,0 +1,149 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.exception.ReviewDeletionException;
+import com.example.se_track_concert.model.ReviewCleanupTask;
+import com.example.se_track_concert.repository.ReviewCleanupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Deletes the reviews of deleted concerts, queued in the outbox by {@link ConcertService#deleteConcert(Long)}. Due
+ * tasks are taken review.cleanup.batch-size at a time, their reviews are looked up per concert and deleted with one
+ * call to the review service. A task that fails is retried with exponential back-off, from
+ * review.cleanup.initial-backoff up to review.cleanup.max-backoff. Deleting reviews again is harmless, reviews that no
+ * longer exist are skipped, so a task that was attempted by a replica that stopped halfway is simply attempted again
+ * once its lease (review.cleanup.lease) ends
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "review.cleanup.enabled", havingValue = "true", matchIfMissing = true)
+public class ReviewCleanupDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReviewCleanupDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final ReviewCleanupRepository reviewCleanupRepository;
+    private final ReviewApiService reviewApiService;
+    private final Clock clock;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    @Autowired
+    public ReviewCleanupDispatcher(ReviewCleanupRepository reviewCleanupRepository, ReviewApiService reviewApiService,
+                                   Environment env) {
+        this(reviewCleanupRepository, reviewApiService, env, Clock.systemUTC());
+    }
+
+    ReviewCleanupDispatcher(ReviewCleanupRepository reviewCleanupRepository, ReviewApiService reviewApiService,
+                            Environment env, Clock clock) {
+        this.reviewCleanupRepository = reviewCleanupRepository;
+        this.reviewApiService = reviewApiService;
+        this.clock = clock;
+        this.batchSize = env.getProperty("review.cleanup.batch-size", Integer.class, 20);
+        this.lease = env.getProperty("review.cleanup.lease", Duration.class, Duration.ofMinutes(1));
+        this.initialBackoff = env.getProperty("review.cleanup.initial-backoff", Duration.class, Duration.ofSeconds(5));
+        this.maxBackoff = env.getProperty("review.cleanup.max-backoff", Duration.class, Duration.ofMinutes(10));
+    }
+
+    /**
+     * drains the due tasks batch by batch. Tasks that fail are postponed, so the loop ends once fewer than a batch
+     * are due
+     */
+    @Scheduled(fixedDelayString = "${review.cleanup.interval:PT2S}")
+    public void dispatch() {
+        while (this.dispatchBatch() == this.batchSize) {
+            LOGGER.debug("Review cleanup batch full, taking the next one");
+        }
+    }
+
+    /**
+     * @return number of due tasks found, whether or not they succeeded
+     */
+    int dispatchBatch() {
+        Instant now = this.clock.instant();
+        List<ReviewCleanupTask> due = this.reviewCleanupRepository.findByNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                now, PageRequest.ofSize(this.batchSize));
+        Map<ReviewCleanupTask, List<String>> reviewIdsByTask = new LinkedHashMap<>();
+        for (ReviewCleanupTask task : due) {
+            if (this.reviewCleanupRepository.claim(task.getId(), task.getAttempts(), now.plus(this.lease)) == 0) {
+                continue;
+            }
+            try {
+                reviewIdsByTask.put(task, this.reviewApiService.getReviewsOfConcert(task.getConcertId()));
+            } catch (RuntimeException e) {
+                this.retryLater(task, e.getMessage());
+            }
+        }
+        if (reviewIdsByTask.isEmpty()) {
+            return due.size();
+        }
+        Set<String> failedReviewIds = Set.of();
+        try {
+            this.reviewApiService.deleteReviews(reviewIdsByTask.values().stream().flatMap(List::stream).toList());
+        } catch (ReviewDeletionException e) {
+            failedReviewIds = new HashSet<>(e.getFailedReviewIds());
+        } catch (RuntimeException e) {
+            reviewIdsByTask.keySet().forEach(task -> this.retryLater(task, e.getMessage()));
+            return due.size();
+        }
+        List<Long> done = new ArrayList<>();
+        for (Map.Entry<ReviewCleanupTask, List<String>> entry : reviewIdsByTask.entrySet()) {
+            if (Collections.disjoint(entry.getValue(), failedReviewIds)) {
+                done.add(entry.getKey().getId());
+                this.reviewApiService.recordReviewsOfDeletedConcert(entry.getValue().size());
+            } else {
+                this.retryLater(entry.getKey(), "Could not delete all reviews of concert " + entry.getKey().getConcertId());
+            }
+        }
+        if (!done.isEmpty()) {
+            this.reviewCleanupRepository.deleteDone(done);
+        }
+        return due.size();
+    }
+
+    /**
+     * helper method which postpones a claimed task, waiting twice as long after every failed attempt
+     * @param task that failed, as read before it was claimed
+     * @param error reason, kept with the task
+     */
+    private void retryLater(ReviewCleanupTask task, String error) {
+        int attempts = task.getAttempts() + 1;
+        Duration backoff = backoff(attempts, this.initialBackoff, this.maxBackoff);
+        this.reviewCleanupRepository.retryLater(task.getId(), this.clock.instant().plus(backoff), truncate(error));
+        LOGGER.warn("Reviews of deleted concert {} not deleted after {} attempts, retrying in {}: {}",
+                task.getConcertId(), attempts, backoff, error);
+    }
+
+    /**
+     * @param attempts failed attempts so far, at least 1
+     * @param initialBackoff wait after the first failed attempt
+     * @param maxBackoff longest wait
+     * @return wait before the next attempt, twice as long after every failed attempt
+     */
+    static Duration backoff(int attempts, Duration initialBackoff, Duration maxBackoff) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    /**
+     * @param error reason of a failed attempt, may be null
+     * @return the reason cut to the length of the last_error column
+     */
+    static String truncate(String error) {
+        return error == null ? null : error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH));
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over the stage of every concert. Stage searches are answered from memory: the trigrams of
+ * the search string narrow the distinct stage names down to candidates, which are then checked with a plain
+ * case-insensitive contains. Searches shorter than a trigram check all distinct stage names, of which a festival
+ * has few. Holds the concerts of the {@link ConcertStore}, which keeps it current
+ */
+@Component
+public class StageIndex implements ConcertStore.Index {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Stage> stagesByKey = new HashMap<>();
+    private final Map<String, Set<String>> stageKeysByTrigram = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * adds the concert to its stage
+     * @param concert stored concert
+     */
+    @Override
+    public void added(Concert concert) {
+        this.lock.writeLock().lock();
+        try {
+            String key = keyOf(concert.getStage());
+            Stage stage = this.stagesByKey.get(key);
+            if (stage == null) {
+                stage = new Stage(concert.getStage());
+                this.stagesByKey.put(key, stage);
+                for (String trigram : trigramsOf(key)) {
+                    this.stageKeysByTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(key);
+                }
+            }
+            stage.concertsById.put(concert.getId(), concert);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * removes the concert and, if it was the last one on its stage, the stage
+     * @param concert the replaced or deleted version
+     */
+    @Override
+    public void removed(Concert concert) {
+        this.lock.writeLock().lock();
+        try {
+            String key = keyOf(concert.getStage());
+            Stage stage = this.stagesByKey.get(key);
+            stage.concertsById.remove(concert.getId());
+            if (stage.concertsById.isEmpty()) {
+                this.stagesByKey.remove(key);
+                for (String trigram : trigramsOf(key)) {
+                    Set<String> keys = this.stageKeysByTrigram.get(trigram);
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        this.stageKeysByTrigram.remove(trigram);
+                    }
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param query part of a stage name, case-insensitive
+     * @return copies of the concerts on matching stages, ordered by id
+     */
+    public List<Concert> find(String query) {
+        this.lock.readLock().lock();
+        try {
+            List<Concert> concerts = new ArrayList<>();
+            for (String key : this.matchingKeys(keyOf(query))) {
+                for (Concert concert : this.stagesByKey.get(key).concertsById.values()) {
+                    concerts.add(new Concert(concert));
+                }
+            }
+            concerts.sort(Comparator.comparing(Concert::getId));
+            return concerts;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * stage names for autocompletion. Names starting with the prefix rank before names only containing it, then names
+     * with more concerts rank first
+     * @param prefix typed part of a stage name, case-insensitive
+     * @param limit maximum number of names
+     * @return ranked stage names
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String query = keyOf(prefix);
+        this.lock.readLock().lock();
+        try {
+            return this.matchingKeys(query).stream()
+                    .sorted(Comparator.<String, Boolean>comparing(key -> !key.startsWith(query))
+                            .thenComparing(key -> -this.stagesByKey.get(key).concertsById.size())
+                            .thenComparing(Comparator.naturalOrder()))
+                    .limit(limit)
+                    .map(key -> this.stagesByKey.get(key).name)
+                    .toList();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * helper method which finds the stage keys containing the query, caller holds the read lock
+     * @param query lower case search string
+     * @return matching stage keys
+     */
+    private List<String> matchingKeys(String query) {
+        Collection<String> candidates;
+        if (query.length() < GRAM) {
+            candidates = this.stagesByKey.keySet();
+        } else {
+            Set<String> intersection = null;
+            for (String trigram : trigramsOf(query)) {
+                Set<String> keys = this.stageKeysByTrigram.getOrDefault(trigram, Set.of());
+                if (intersection == null) {
+                    intersection = new HashSet<>(keys);
+                } else {
+                    intersection.retainAll(keys);
+                }
+                if (intersection.isEmpty()) {
+                    return List.of();
+                }
+            }
+            candidates = intersection;
+        }
+        List<String> matches = new ArrayList<>();
+        for (String key : candidates) {
+            if (key.contains(query)) {
+                matches.add(key);
+            }
+        }
+        return matches;
+    }
+
+    private static String keyOf(String stage) {
+        return stage == null ? "" : stage.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigramsOf(String key) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            trigrams.add(key.substring(i, i + GRAM));
+        }
+        return trigrams;
+    }
+
+    /**
+     * distinct stage name, the name is kept as first written
+     */
+    private static final class Stage {
+        private final String name;
+        private final Map<Long, Concert> concertsById = new HashMap<>();
+
+        private Stage(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.se_track_concert.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the {@link ConcertStore}, and with it the {@link StageIndex} and the {@link ConcertCalendar}, once all beans
+ * exist and before the web server accepts requests, so no write can interleave with the initial load
+ */
+@Component
+@Profile("!reactive")
+public class StageIndexLoader implements SmartInitializingSingleton {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StageIndexLoader.class);
+
+    private final ConcertService concertService;
+    private final ConcertStore concertStore;
+
+    @Autowired
+    public StageIndexLoader(ConcertService concertService, ConcertStore concertStore) {
+        this.concertService = concertService;
+        this.concertStore = concertStore;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        this.concertService.loadAllConcerts(this.concertStore::put);
+        LOGGER.info("Indexed stages of {} concerts in {} ms", this.concertStore.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
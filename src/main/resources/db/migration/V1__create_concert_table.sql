@@ -0,0 +1,11 @@
+-- schema as previously created by hibernate ddl-auto=update, existing databases are baselined at this version
+create table concert
+(
+    concert_id   bigserial    not null,
+    begin_time   time,
+    day          date,
+    end_time     time,
+    performer_id int8         not null,
+    stage        varchar(255),
+    primary key (concert_id)
+);
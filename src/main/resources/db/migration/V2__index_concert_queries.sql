@@ -0,0 +1,8 @@
+-- findConcertByPerformerId, check-delete-performer
+create index idx_concert_performer_id on concert (performer_id);
+
+-- findByDayBefore/After and the keyset pages and streams ordered by (day, concert_id)
+create index idx_concert_day_id on concert (day, concert_id);
+
+-- concerts of a day on a stage
+create index idx_concert_day_stage on concert (day, stage);
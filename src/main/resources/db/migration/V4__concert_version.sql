@@ -0,0 +1,2 @@
+-- optimistic locking, Concert.version is incremented by every update and checked by the patch-style update
+alter table concert add column version int8 default 0 not null;
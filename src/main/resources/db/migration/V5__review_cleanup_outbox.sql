@@ -0,0 +1,14 @@
+-- reviews still to be deleted after their concert was, written in the transaction of the concert delete and drained
+-- by ReviewCleanupDispatcher
+create table review_cleanup_outbox
+(
+    id              bigserial not null,
+    concert_id      int8      not null,
+    attempts        int4      not null,
+    next_attempt_at timestamp not null,
+    last_error      varchar(255),
+    primary key (id)
+);
+
+-- due tasks, oldest first
+create index idx_review_cleanup_outbox_next_attempt on review_cleanup_outbox (next_attempt_at);
@@ -0,0 +1,9 @@
+-- numbers the concert writes of all replicas, incremented in the transaction of every write, see ConcertService
+create table concert_data_version
+(
+    id      int4 not null,
+    version int8 not null,
+    primary key (id)
+);
+
+insert into concert_data_version (id, version) values (1, 0);
@@ -1,27 +1,52 @@
 package com.example.se_track_concert.controller;
 
+import com.example.se_track_concert.controller.DTO.ConcertSearchDTO;
 import com.example.se_track_concert.controller.DTO.NewConcertDTO;
 import com.example.se_track_concert.controller.DTO.UpdateConcertDTO;
+import com.example.se_track_concert.exception.ConcertNotFoundException;
+import com.example.se_track_concert.exception.ConcertUpdateConflictException;
 import com.example.se_track_concert.exception.InvalidPerformerIdException;
 import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ConcertReviewInfo;
+import com.example.se_track_concert.service.ConcertCursor;
+import com.example.se_track_concert.service.ConcertDataVersion;
 import com.example.se_track_concert.service.ConcertService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import javax.validation.Validation;
 import java.io.UnsupportedEncodingException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ConcertController.class)
@@ -34,6 +59,14 @@ class ConcertControllerTest {
     @MockBean
     private ConcertService concertService;
 
+    private final ConcertDataVersion dataVersion = new ConcertDataVersion(LocalDate.EPOCH, 3, 3, Instant.parse("2022-01-01T12:00:00Z"));
+
+    @BeforeEach
+    void stubDataVersion() {
+        Mockito.when(this.concertService.getDataVersion()).thenReturn(this.dataVersion);
+        Mockito.when(this.concertService.getToday()).thenReturn(LocalDate.now());
+    }
+
     @Test
     void getAllConcerts() {
         try {
@@ -125,6 +158,17 @@ class ConcertControllerTest {
         }
     }
 
+    @Test
+    void updateConcertChangedInTheMeantime() throws Throwable {
+        Mockito.doThrow(new ConcertUpdateConflictException()).when(this.concertService)
+                .updateConcert(ArgumentMatchers.argThat(update -> Long.valueOf(2).equals(update.getVersion())));
+        mockMvc.perform(put("/concert/update")
+                        .contentType("application/json")
+                        .content("{\"id\":1,\"stage\":\"arena\",\"version\":2}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.response").value("Concert was changed in the meantime, read it again before updating"));
+    }
+
     @Test
     void deleteConcert() {
         try {
@@ -137,9 +181,18 @@ class ConcertControllerTest {
         }
     }
 
+    @Test
+    void deleteConcertNotFound() throws Throwable {
+        Mockito.doThrow(new ConcertNotFoundException()).when(this.concertService).deleteConcert(1L);
+        mockMvc.perform(delete("/concert/delete")
+                        .param("id", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.response").value("No concert found with id 1"));
+    }
+
     @Test
     void checkIfConcertCanBeReviewedExpectValid() {
-        Mockito.when(this.concertService.getConcertById(1L)).thenReturn(new Concert(1, LocalDate.of(2020, 1, 1), "Arena", LocalTime.now(), LocalTime.now()));
+        Mockito.when(this.concertService.getConcertReviewInfo(1L)).thenReturn(new ConcertReviewInfo(LocalDate.of(2020, 1, 1), 1));
         MvcResult result = null;
         try {
             result = mockMvc.perform(get("/concert/valid-review")
@@ -197,9 +250,30 @@ class ConcertControllerTest {
         }
     }
 
+    @Test
+    void getConcertsByPerformerIdAsCbor() throws Throwable {
+        Concert concert = new Concert(1, LocalDate.of(2022, 7, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        concert.setId(3L);
+        Mockito.when(this.concertService.getConcertsByPerformerId(1L)).thenReturn(List.of(concert));
+
+        MvcResult result = mockMvc.perform(get("/concert/concerts-by-performer")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .param("performerId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        JsonNode concerts = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(3, concerts.get(0).get("id").asLong());
+        assertEquals("2022-07-01", concerts.get(0).get("day").asText());
+
+        mockMvc.perform(get("/concert/concerts-by-performer").param("performerId", "1"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].day").value("2022-07-01"));
+    }
+
     @Test
     void checkIfPerformerCanBeDeletedIsValid() throws InvalidPerformerIdException, UnsupportedEncodingException {
-        Mockito.when(this.concertService.getConcertsByPerformerId(1L)).thenReturn(new ArrayList<>());
+        Mockito.when(this.concertService.performerHasConcerts(1L)).thenReturn(false);
         MvcResult result = null;
         try {
             result = mockMvc.perform(get("/concert/check-delete-performer")
@@ -215,9 +289,7 @@ class ConcertControllerTest {
 
     @Test
     void checkIfPerformerCanBeDeletedIsInvalid() throws InvalidPerformerIdException, UnsupportedEncodingException {
-        List<Concert> concerts = new ArrayList<>();
-        concerts.add(new Concert());
-        Mockito.when(this.concertService.getConcertsByPerformerId(1L)).thenReturn(concerts);
+        Mockito.when(this.concertService.performerHasConcerts(1L)).thenReturn(true);
         MvcResult result = null;
         try {
             result = mockMvc.perform(get("/concert/check-delete-performer")
@@ -252,4 +324,266 @@ class ConcertControllerTest {
             System.out.println(e);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllConcertsStreamed() throws Exception {
+        Concert concert = new Concert(1, LocalDate.of(2022, 1, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        concert.setId(1L);
+        Mockito.doAnswer(invocation -> {
+            Consumer<Concert> action = invocation.getArgument(0);
+            action.accept(concert);
+            action.accept(concert);
+            return null;
+        }).when(this.concertService).streamAllConcerts(Mockito.any());
+
+        MvcResult result = mockMvc.perform(get("/concert/all"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].stage").value("Arena"));
+    }
+
+    @Test
+    void exportConcerts() throws Exception {
+        Concert arena = new Concert(1, LocalDate.of(2022, 1, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        arena.setId(1L);
+        Concert tent = new Concert(2, LocalDate.of(2022, 1, 2), "Tent \"North\", left", LocalTime.of(18, 0), LocalTime.of(19, 30));
+        tent.setId(2L);
+        Mockito.doAnswer(invocation -> {
+            Consumer<Concert> action = invocation.getArgument(0);
+            action.accept(arena);
+            action.accept(tent);
+            return null;
+        }).when(this.concertService).streamAllConcerts(Mockito.any());
+
+        MvcResult result = mockMvc.perform(get("/concert/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"concerts.ndjson\""))
+                .andReturn().getResponse().getContentAsString();
+        String[] rows = ndjson.split("\n");
+        assertEquals(2, rows.length);
+        assertTrue(ndjson.endsWith("\n"));
+        assertEquals("Arena", this.objectMapper.readTree(rows[0]).get("stage").asText());
+        assertEquals(2, this.objectMapper.readTree(rows[1]).get("id").asLong());
+
+        result = mockMvc.perform(get("/concert/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("id,performerId,day,stage,beginTime,endTime\r\n"
+                + "1,1,2022-01-01,Arena,20:00,22:00\r\n"
+                + "2,2,2022-01-02,\"Tent \"\"North\"\", left\",18:00,19:30\r\n", csv);
+
+        mockMvc.perform(get("/concert/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllConcertsNotModified() throws Exception {
+        MvcResult result = mockMvc.perform(get("/concert/all"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-3\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, must-revalidate, public"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/concert/all").header(HttpHeaders.IF_NONE_MATCH, "\"0-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-3\""));
+        mockMvc.perform(get("/concert/all").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, "\"0-3\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/concert/all").header(HttpHeaders.IF_MODIFIED_SINCE, "Sat, 01 Jan 2022 12:00:00 GMT"))
+                .andExpect(status().isNotModified());
+        Mockito.verify(this.concertService, Mockito.times(1)).streamAllConcerts(Mockito.any());
+        Mockito.verify(this.concertService, Mockito.never()).getAllConcerts(Mockito.any(), Mockito.anyInt());
+
+        mockMvc.perform(get("/concert/all").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, "\"0-2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cborListHasItsOwnETag() throws Exception {
+        Mockito.when(this.concertService.getTodayConcerts()).thenReturn(List.of());
+
+        mockMvc.perform(get("/concert/today-concerts").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-3-cbor\""));
+        // the JSON copy of a client does not validate the CBOR list and the other way round
+        mockMvc.perform(get("/concert/today-concerts").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-3\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/concert/today-concerts").header(HttpHeaders.IF_NONE_MATCH, "\"0-3-cbor\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/concert/today-concerts").header(HttpHeaders.ACCEPT, "application/cbor;q=0.5, application/json")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-3\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void conditionalGetsAreOffWithoutInvalidation() throws Exception {
+        MockEnvironment env = new MockEnvironment().withProperty("concert.invalidation.enabled", "false");
+        MockMvc standalone = MockMvcBuilders.standaloneSetup(new ConcertController(this.concertService, this.objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), env)).build();
+        Mockito.when(this.concertService.getTodayConcerts()).thenReturn(List.of());
+
+        standalone.perform(get("/concert/today-concerts").header(HttpHeaders.IF_NONE_MATCH, "\"0-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getConcertsTodayAndFuture() throws Exception {
+        Concert today = new Concert(1, LocalDate.now(), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        today.setId(3L);
+        Concert tomorrow = new Concert(1, LocalDate.now().plusDays(1), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        tomorrow.setId(4L);
+        Mockito.when(this.concertService.getTodayConcerts()).thenReturn(List.of(today));
+        Mockito.doAnswer(invocation -> {
+            Consumer<Concert> action = invocation.getArgument(0);
+            action.accept(tomorrow);
+            return null;
+        }).when(this.concertService).streamFutureConcerts(Mockito.any());
+
+        mockMvc.perform(get("/concert/today-concerts"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-3\""))
+                .andExpect(jsonPath("$[0].id").value(3));
+        MvcResult result = mockMvc.perform(get("/concert/future-concerts"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(4));
+        mockMvc.perform(get("/concert/today-concerts").header(HttpHeaders.IF_NONE_MATCH, "\"0-3\""))
+                .andExpect(status().isNotModified());
+        Mockito.verify(this.concertService, Mockito.times(1)).getTodayConcerts();
+    }
+
+    @Test
+    void getAllConcertsPaged() throws Exception {
+        Concert concert = new Concert(1, LocalDate.of(2022, 1, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        concert.setId(7L);
+        Mockito.when(this.concertService.getAllConcerts(null, 1)).thenReturn(List.of(concert));
+
+        mockMvc.perform(get("/concert/all").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.concerts[0].id").value(7))
+                .andExpect(jsonPath("$.next").value(ConcertCursor.after(concert).encode()));
+        mockMvc.perform(get("/concert/all").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"concerts\":[],\"next\":null}"));
+    }
+
+    @Test
+    void getAllConcertsInvalidPage() throws Exception {
+        mockMvc.perform(get("/concert/all").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/concert/future-concerts").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createNewConcerts() throws Exception {
+        NewConcertDTO valid = new NewConcertDTO(1, LocalDate.of(2022, 1, 1), "test", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        NewConcertDTO unknownPerformer = new NewConcertDTO(2, LocalDate.of(2022, 1, 1), "test", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        NewConcertDTO invalid = new NewConcertDTO(0, LocalDate.of(2022, 1, 1), "test", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        Mockito.when(this.concertService.createNewConcerts(Mockito.anyList())).thenReturn(List.of(true, false));
+
+        mockMvc.perform(post("/concert/bulk")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(valid, invalid, unknownPerformer))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].response").value("performerId: Performer of concert mandatory"))
+                .andExpect(jsonPath("$[2].status").value(400))
+                .andExpect(jsonPath("$[2].response").value("No performer found with id 2"));
+    }
+
+    @Test
+    void createNewConcertsWithNullElement() throws Exception {
+        NewConcertDTO valid = new NewConcertDTO(1, LocalDate.of(2022, 1, 1), "test", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        Mockito.when(this.concertService.createNewConcerts(Mockito.anyList())).thenReturn(List.of(true));
+
+        mockMvc.perform(post("/concert/bulk")
+                        .contentType("application/json")
+                        .content("[" + objectMapper.writeValueAsString(valid) + ",null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].response").value("Concert at index 1 is null"));
+    }
+
+    @Test
+    void createNewConcertsPerformerCheckFailed() throws Exception {
+        NewConcertDTO valid = new NewConcertDTO(1, LocalDate.of(2022, 1, 1), "test", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        NewConcertDTO unchecked = new NewConcertDTO(3, LocalDate.of(2022, 1, 1), "test", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        Mockito.when(this.concertService.createNewConcerts(Mockito.anyList())).thenReturn(Arrays.asList(true, null));
+
+        mockMvc.perform(post("/concert/bulk")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(valid, unchecked))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[1].status").value(503))
+                .andExpect(jsonPath("$[1].response").value("Performer 3 could not be checked, try again later"));
+    }
+
+    @Test
+    void suggestStages() throws Exception {
+        Mockito.when(this.concertService.suggestStages("ar", 10)).thenReturn(List.of("Arena", "Main arena"));
+        mockMvc.perform(get("/concert/stages/suggest").param("prefix", "ar"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"Arena\",\"Main arena\"]"));
+    }
+
+    @Test
+    void searchConcerts() throws Exception {
+        Concert concert = new Concert(2, LocalDate.of(2022, 7, 2), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0));
+        concert.setId(4L);
+        ArgumentCaptor<ConcertSearchDTO> search = ArgumentCaptor.forClass(ConcertSearchDTO.class);
+        Mockito.when(this.concertService.searchConcerts(search.capture(),
+                        ArgumentMatchers.eq(Sort.by(Sort.Order.desc("day"), Sort.Order.asc("stage"))), ArgumentMatchers.eq(20)))
+                .thenReturn(List.of(concert));
+
+        mockMvc.perform(get("/concert/search")
+                        .param("stage", "are")
+                        .param("performerId", "1", "2")
+                        .param("dayFrom", "2022-07-01")
+                        .param("dayTo", "2022-07-03")
+                        .param("timeFrom", "18:00")
+                        .param("sort", "-day,stage")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(4));
+
+        assertEquals("are", search.getValue().getStage());
+        assertEquals(List.of(1L, 2L), search.getValue().getPerformerId());
+        assertEquals(LocalDate.of(2022, 7, 1), search.getValue().getDayFrom());
+        assertEquals(LocalDate.of(2022, 7, 3), search.getValue().getDayTo());
+        assertEquals(LocalTime.of(18, 0), search.getValue().getTimeFrom());
+        assertNull(search.getValue().getTimeTo());
+    }
+
+    @Test
+    void searchConcertsInvalidRequest() throws Exception {
+        mockMvc.perform(get("/concert/search").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/concert/search").param("dayFrom", "2022-07-03").param("dayTo", "2022-07-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/concert/search").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
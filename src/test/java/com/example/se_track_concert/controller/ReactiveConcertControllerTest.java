@@ -0,0 +1,87 @@
+package com.example.se_track_concert.controller;
+
+import com.example.se_track_concert.controller.DTO.NewConcertDTO;
+import com.example.se_track_concert.exception.InvalidPerformerIdException;
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.service.ReactiveConcertService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@WebFluxTest(ReactiveConcertController.class)
+@ActiveProfiles("reactive")
+class ReactiveConcertControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @MockBean
+    private ReactiveConcertService concertService;
+
+    @Test
+    void getAllConcerts() {
+        Mockito.when(this.concertService.getAllConcerts()).thenReturn(Flux.just(
+                new Concert(1, LocalDate.of(2022, 1, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0))));
+        this.webTestClient.get().uri("/concert/all").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].stage").isEqualTo("Arena");
+    }
+
+    @Test
+    void getConcertsToday() {
+        Mockito.when(this.concertService.getTodayConcerts()).thenReturn(Flux.just(
+                new Concert(1, LocalDate.of(2022, 7, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0))));
+        this.webTestClient.get().uri("/concert/today-concerts").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].day").isEqualTo("2022-07-01");
+    }
+
+    @Test
+    void createNewConcertInvalidPerformer() {
+        Mockito.when(this.concertService.createNewConcert(Mockito.any())).thenReturn(Mono.error(new InvalidPerformerIdException()));
+        this.webTestClient.post().uri("/concert/new")
+                .bodyValue(new NewConcertDTO(1, LocalDate.of(2022, 1, 1), "test", LocalTime.of(20, 0), LocalTime.of(22, 0)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"response\":\"No performer found with id 1\"}");
+    }
+
+    @Test
+    void createNewConcertFailedValidation() {
+        this.webTestClient.post().uri("/concert/new")
+                .bodyValue(new NewConcertDTO(0, LocalDate.of(2022, 1, 1), "test", LocalTime.of(20, 0), LocalTime.of(22, 0)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"performerId\":\"Performer of concert mandatory\"}");
+    }
+
+    @Test
+    void checkIfConcertCanBeReviewed() {
+        Mockito.when(this.concertService.getConcertById(1L)).thenReturn(Mono.just(
+                new Concert(1, LocalDate.of(2020, 1, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(22, 0))));
+        Mockito.when(this.concertService.getConcertById(2L)).thenReturn(Mono.empty());
+        Mockito.when(this.concertService.getToday()).thenReturn(LocalDate.of(2022, 7, 1));
+
+        this.webTestClient.get().uri("/concert/valid-review?id=1").exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"canBeReviewed\":true,\"performerId\":1}");
+        this.webTestClient.get().uri("/concert/valid-review?id=2").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void checkIfPerformerCanBeDeleted() {
+        Mockito.when(this.concertService.getConcertsByPerformerId(1L)).thenReturn(Flux.empty());
+        this.webTestClient.get().uri("/concert/check-delete-performer?performerId=1").exchange()
+                .expectStatus().isOk()
+                .expectBody(Boolean.class).isEqualTo(true);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.se_track_concert.grpc;
+
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ConcertReviewInfo;
+import com.example.se_track_concert.service.ConcertService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcertLookupGrpcServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2022, 7, 2);
+
+    @Mock
+    private ConcertService concertService;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        this.server = InProcessServerBuilder.forName(name).directExecutor()
+                .addService(new ConcertLookupGrpcService(this.concertService))
+                .build()
+                .start();
+        this.channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        this.channel.shutdownNow();
+        this.server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void validateReview() {
+        Mockito.when(this.concertService.getToday()).thenReturn(TODAY);
+        Mockito.when(this.concertService.getConcertReviewInfo(1L)).thenReturn(new ConcertReviewInfo(TODAY.minusDays(1), 7));
+        Mockito.when(this.concertService.getConcertReviewInfo(2L)).thenReturn(new ConcertReviewInfo(TODAY.plusDays(1), 8));
+        ConcertLookupGrpc.ConcertLookupBlockingStub stub = ConcertLookupGrpc.newBlockingStub(this.channel);
+
+        ValidateReviewReply valid = stub.validateReview(ValidateReviewRequest.newBuilder().setConcertId(1).build());
+        assertEquals(ValidateReviewReply.Status.VALID, valid.getStatus());
+        assertTrue(valid.getCanBeReviewed());
+        assertEquals(7, valid.getPerformerId());
+
+        ValidateReviewReply notYet = stub.validateReview(ValidateReviewRequest.newBuilder().setConcertId(2).build());
+        assertEquals(ValidateReviewReply.Status.NOT_PERFORMED_YET, notYet.getStatus());
+        assertFalse(notYet.getCanBeReviewed());
+
+        ValidateReviewReply notFound = stub.validateReview(ValidateReviewRequest.newBuilder().setConcertId(3).build());
+        assertEquals(ValidateReviewReply.Status.NOT_FOUND, notFound.getStatus());
+        assertEquals(3, notFound.getConcertId());
+    }
+
+    @Test
+    void getConcert() {
+        Concert concert = new Concert(7, TODAY, "Arena", LocalTime.of(20, 0), LocalTime.of(22, 30));
+        concert.setId(1L);
+        Mockito.when(this.concertService.getConcertById(1L)).thenReturn(concert);
+        ConcertLookupGrpc.ConcertLookupBlockingStub stub = ConcertLookupGrpc.newBlockingStub(this.channel);
+
+        ConcertReply reply = stub.getConcert(GetConcertRequest.newBuilder().setConcertId(1).build());
+        assertEquals(1, reply.getId());
+        assertEquals("2022-07-02", reply.getDay());
+        assertEquals("Arena", reply.getStage());
+        assertEquals("22:30", reply.getEndTime());
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class,
+                () -> stub.getConcert(GetConcertRequest.newBuilder().setConcertId(2).build()));
+        assertEquals(Status.Code.NOT_FOUND, e.getStatus().getCode());
+    }
+
+    @Test
+    void getConcertLeavesMissingColumnsEmpty() {
+        Concert concert = new Concert(7, TODAY, null, null, null);
+        concert.setId(1L);
+        Mockito.when(this.concertService.getConcertById(1L)).thenReturn(concert);
+
+        ConcertReply reply = ConcertLookupGrpc.newBlockingStub(this.channel)
+                .getConcert(GetConcertRequest.newBuilder().setConcertId(1).build());
+        assertEquals("2022-07-02", reply.getDay());
+        assertEquals("", reply.getStage());
+        assertEquals("", reply.getBeginTime());
+        assertEquals("", reply.getEndTime());
+    }
+
+    @Test
+    void validateReviewsAnswersEveryRequestInOrder() throws Exception {
+        Mockito.when(this.concertService.getToday()).thenReturn(TODAY);
+        Mockito.when(this.concertService.getConcertReviewInfo(Mockito.anyLong()))
+                .thenAnswer(invocation -> (Long) invocation.getArgument(0) % 2 == 0 ? null : new ConcertReviewInfo(TODAY, 7));
+        List<ValidateReviewReply> replies = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        StreamObserver<ValidateReviewRequest> requests = ConcertLookupGrpc.newStub(this.channel).validateReviews(new StreamObserver<>() {
+            @Override
+            public void onNext(ValidateReviewReply reply) {
+                replies.add(reply);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.complete(null);
+            }
+        });
+        for (long concertId = 1; concertId <= 5; concertId++) {
+            requests.onNext(ValidateReviewRequest.newBuilder().setConcertId(concertId).build());
+        }
+        requests.onCompleted();
+        completed.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), replies.stream().map(ValidateReviewReply::getConcertId).toList());
+        assertEquals(List.of(ValidateReviewReply.Status.VALID, ValidateReviewReply.Status.NOT_FOUND, ValidateReviewReply.Status.VALID,
+                        ValidateReviewReply.Status.NOT_FOUND, ValidateReviewReply.Status.VALID),
+                replies.stream().map(ValidateReviewReply::getStatus).toList());
+    }
+
+    @Test
+    void validateReviewsCancelledByClientIsClosed() throws Exception {
+        Mockito.when(this.concertService.getToday()).thenReturn(TODAY);
+        Mockito.when(this.concertService.getConcertReviewInfo(1L)).thenReturn(new ConcertReviewInfo(TODAY, 7));
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        StreamObserver<ValidateReviewRequest> requests = ConcertLookupGrpc.newStub(this.channel).validateReviews(new StreamObserver<>() {
+            @Override
+            public void onNext(ValidateReviewReply reply) {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.complete(null);
+            }
+        });
+        requests.onNext(ValidateReviewRequest.newBuilder().setConcertId(1).build());
+        requests.onError(new IllegalStateException("review service shutting down"));
+
+        Exception e = assertThrows(Exception.class, () -> completed.get(5, TimeUnit.SECONDS));
+        assertEquals(Status.Code.CANCELLED, Status.fromThrowable(e.getCause()).getCode());
+        // the server is not left with a broken call
+        assertEquals(ValidateReviewReply.Status.VALID, ConcertLookupGrpc.newBlockingStub(this.channel)
+                .validateReview(ValidateReviewRequest.newBuilder().setConcertId(1).build()).getStatus());
+    }
+}
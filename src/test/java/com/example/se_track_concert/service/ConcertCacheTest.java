@@ -0,0 +1,76 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.repository.ConcertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ConcertCacheTest {
+
+    @Mock
+    private ConcertRepository concertRepository;
+
+    private ConcertCache concertCache;
+    private Concert concert;
+
+    @BeforeEach
+    void setUp() {
+        this.concertCache = new ConcertCache(this.concertRepository, new MockEnvironment());
+        this.concert = new Concert(1, LocalDate.of(2022, 7, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(21, 0));
+        this.concert.setId(1L);
+    }
+
+    @Test
+    void getReadsThroughOnce() {
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(this.concert);
+
+        assertEquals(this.concert, this.concertCache.get(1L));
+        assertEquals(this.concert, this.concertCache.get(1L));
+        verify(this.concertRepository, times(1)).findConcertById(1L);
+        assertEquals(1, this.concertCache.getStats().hitCount());
+    }
+
+    @Test
+    void getReturnsCopies() {
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(this.concert);
+
+        Concert first = this.concertCache.get(1L);
+        first.setStage("Changed");
+        this.concert.setStage("Changed too");
+
+        assertEquals("Arena", this.concertCache.get(1L).getStage());
+        assertEquals(1L, this.concertCache.getIfPresent(1L).getId());
+    }
+
+    @Test
+    void unknownIdsAreNotCached() {
+        assertNull(this.concertCache.get(2L));
+        assertNull(this.concertCache.get(2L));
+        verify(this.concertRepository, times(2)).findConcertById(2L);
+    }
+
+    @Test
+    void invalidate() {
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(this.concert);
+        this.concertCache.get(1L);
+
+        this.concertCache.invalidate(1L);
+
+        assertNull(this.concertCache.getIfPresent(1L));
+        this.concertCache.get(1L);
+        verify(this.concertRepository, times(2)).findConcertById(1L);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcertCalendarTest {
+
+    private static final ZoneId FESTIVAL_ZONE = ZoneId.of("Europe/Amsterdam");
+    private static final LocalDate DAY = LocalDate.of(2022, 7, 1);
+
+    private final MutableClock clock = new MutableClock(DAY.atTime(12, 0).atZone(FESTIVAL_ZONE).toInstant());
+    private ConcertCalendar concertCalendar;
+    private ConcertStore concertStore;
+
+    private static Concert concert(long id, LocalDate day) {
+        Concert concert = new Concert(1, day, "Arena", LocalTime.of(20, 0), LocalTime.of(21, 0));
+        concert.setId(id);
+        return concert;
+    }
+
+    private static List<Long> ids(List<Concert> concerts) {
+        return concerts.stream().map(Concert::getId).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.concertCalendar = new ConcertCalendar(this.clock);
+        this.concertStore = new ConcertStore(List.of(this.concertCalendar));
+        this.concertStore.put(concert(1, DAY.minusDays(1)));
+        this.concertStore.put(concert(2, DAY));
+        this.concertStore.put(concert(3, DAY.plusDays(1)));
+        this.concertStore.put(concert(4, DAY.plusDays(2)));
+        this.concertStore.put(concert(5, DAY.plusDays(1)));
+    }
+
+    @Test
+    void partitionsByDay() {
+        assertEquals(List.of(1L), ids(this.concertCalendar.past(null, 10)));
+        assertEquals(List.of(2L), ids(this.concertCalendar.today()));
+        assertEquals(List.of(3L, 5L, 4L), ids(this.concertCalendar.future(null, 10)));
+        assertEquals(List.of(5L, 4L), ids(this.concertCalendar.future(new ConcertCursor(DAY.plusDays(1), 3), 10)));
+        assertEquals(List.of(3L), ids(this.concertCalendar.future(null, 1)));
+    }
+
+    @Test
+    void forEachReadsEveryPage() {
+        for (long id = 10; id < 1210; id++) {
+            this.concertStore.put(concert(id, DAY.plusDays(1 + id % 7)));
+        }
+        List<Concert> streamed = new ArrayList<>();
+        this.concertCalendar.forEachFuture(streamed::add);
+
+        assertEquals(ids(this.concertCalendar.future(null, Integer.MAX_VALUE)), ids(streamed));
+        List<Long> past = new ArrayList<>();
+        this.concertCalendar.forEachPast(concert -> past.add(concert.getId()));
+        assertEquals(List.of(1L), past);
+    }
+
+    @Test
+    void putMovesChangedConcert() {
+        this.concertStore.put(concert(3, DAY));
+        this.concertStore.remove(1L);
+
+        assertEquals(List.of(), this.concertCalendar.past(null, 10));
+        assertEquals(List.of(2L, 3L), ids(this.concertCalendar.today()));
+        assertEquals(List.of(5L, 4L), ids(this.concertCalendar.future(null, 10)));
+        assertEquals(4, this.concertStore.size());
+    }
+
+    @Test
+    void rollOverAtMidnightInFestivalZone() {
+        // 23:30 in Amsterdam is still the same day there, although it already is the next day further east
+        this.clock.set(DAY.atTime(23, 30).atZone(FESTIVAL_ZONE).toInstant());
+        assertFalse(this.concertCalendar.rollOver());
+
+        this.clock.set(DAY.plusDays(1).atStartOfDay(FESTIVAL_ZONE).toInstant());
+        assertTrue(this.concertCalendar.rollOver());
+        assertFalse(this.concertCalendar.rollOver());
+
+        assertEquals(DAY.plusDays(1), this.concertCalendar.getDay());
+        assertEquals(List.of(1L, 2L), ids(this.concertCalendar.past(null, 10)));
+        assertEquals(List.of(3L, 5L), ids(this.concertCalendar.today()));
+        assertEquals(List.of(4L), ids(this.concertCalendar.future(null, 10)));
+    }
+
+    @Test
+    void rollOverAfterMissedDays() {
+        this.clock.set(DAY.plusDays(2).atTime(9, 0).atZone(FESTIVAL_ZONE).toInstant());
+        assertTrue(this.concertCalendar.rollOver());
+
+        assertEquals(List.of(1L, 2L, 3L, 5L), ids(this.concertCalendar.past(null, 10)));
+        assertEquals(List.of(4L), ids(this.concertCalendar.today()));
+        assertEquals(List.of(), this.concertCalendar.future(null, 10));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void set(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return FESTIVAL_ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return this.instant;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.repository.ConcertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ConcertInvalidationBusTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ConcertRepository concertRepository;
+    @Mock
+    private ConcertService concertService;
+    @Mock
+    private ConcertCache concertCache;
+    @Mock
+    private ConcertStore concertStore;
+
+    private ConcertInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        this.bus = new ConcertInvalidationBus(this.jdbcTemplate, new DataSourceProperties(), this.concertRepository,
+                this.concertService, this.concertCache, this.concertStore, new MockEnvironment());
+    }
+
+    @Test
+    void payloads() {
+        assertEquals(List.of("a:7:1,2,3"), ConcertInvalidationBus.payloads("a", 7, List.of(1L, 2L, 3L)));
+        assertEquals(List.of(), ConcertInvalidationBus.payloads("a", 7, List.of()));
+
+        List<Long> ids = LongStream.range(1_000_000, 1_002_000).boxed().toList();
+        List<String> payloads = ConcertInvalidationBus.payloads("a", 123456, ids);
+        assertEquals(3, payloads.size());
+        payloads.forEach(payload -> assertTrue(payload.length() <= ConcertInvalidationBus.MAX_PAYLOAD_LENGTH));
+        assertEquals(ids.size(), payloads.stream().mapToInt(payload -> payload.split(":")[2].split(",").length).sum());
+        // only the last notification of a write counts it
+        assertTrue(payloads.get(0).startsWith("a::"));
+        assertTrue(payloads.get(2).startsWith("a:123456:"));
+    }
+
+    @Test
+    void publishNotifies() {
+        this.bus.publish(new ConcertChangedEvent(1, List.of(1L, 2L)));
+        verify(this.jdbcTemplate, times(1)).execute(ArgumentMatchers.eq("select pg_notify(?, ?)"),
+                ArgumentMatchers.<PreparedStatementCallback<Boolean>>any());
+    }
+
+    @Test
+    void handleRefreshesChangedConcerts() {
+        Concert concert = new Concert(1, LocalDate.of(2022, 7, 1), "Arena", LocalTime.of(20, 0), LocalTime.of(21, 0));
+        concert.setId(1L);
+        Mockito.when(this.concertRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(concert));
+
+        this.bus.handle("other-replica::1,2");
+        verify(this.concertService, Mockito.never()).concertsChanged(ArgumentMatchers.anyLong());
+        this.bus.handle("other-replica:9:3");
+
+        verify(this.concertRepository, times(1)).findAllById(List.of(1L, 2L));
+        verify(this.concertCache, times(1)).invalidate(1L);
+        verify(this.concertCache, times(1)).invalidate(2L);
+        verify(this.concertStore, times(1)).put(concert);
+        verify(this.concertStore, times(1)).remove(2L);
+        verify(this.concertStore, times(1)).remove(3L);
+        verify(this.concertService, times(1)).concertsChanged(9);
+    }
+
+    @Test
+    void handleIgnoresMalformedPayload() {
+        this.bus.handle("no separator");
+        verifyNoInteractions(this.concertCache, this.concertStore, this.concertRepository);
+    }
+
+    @Test
+    void handleSkipsMalformedIds() {
+        Mockito.when(this.concertRepository.findAllById(List.of(3L))).thenReturn(List.of());
+
+        this.bus.handle("other-replica:9:x,3,");
+        this.bus.handle("other-replica:v:4");
+
+        verify(this.concertStore, times(1)).remove(3L);
+        verify(this.concertService, times(1)).concertsChanged(9);
+        verify(this.concertStore, times(1)).remove(4L);
+        verify(this.concertService, times(1)).concertsChanged(ArgumentMatchers.anyLong());
+    }
+}
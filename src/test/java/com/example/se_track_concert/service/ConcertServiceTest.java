@@ -1,23 +1,42 @@
 package com.example.se_track_concert.service;
 
+import com.example.se_track_concert.controller.DTO.ConcertSearchDTO;
 import com.example.se_track_concert.controller.DTO.NewConcertDTO;
 import com.example.se_track_concert.controller.DTO.UpdateConcertDTO;
 import com.example.se_track_concert.exception.ConcertHasReviewsException;
 import com.example.se_track_concert.exception.ConcertNotFoundException;
+import com.example.se_track_concert.exception.ConcertUpdateConflictException;
 import com.example.se_track_concert.exception.InvalidPerformerIdException;
 import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ConcertReviewInfo;
 import com.example.se_track_concert.repository.ConcertRepository;
+import com.example.se_track_concert.repository.ReviewCleanupRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.times;
@@ -35,10 +54,34 @@ class ConcertServiceTest {
     private PerformerApiService performerApiService;
     @Mock
     private ReviewApiService reviewApiService;
+    @Mock
+    private ReviewCleanupRepository reviewCleanupRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private StageIndex stageIndex;
+    @Mock
+    private ConcertCalendar concertCalendar;
+    @Mock
+    private ConcertStore concertStore;
+    @Mock
+    private ConcertCache concertCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     private static Concert concertUnderTest1 = new Concert(1, LocalDate.of(2020,10,10), "test", LocalTime.of(10, 0), LocalTime.of(10, 0));
     private static Concert concertUnderTest2 = new Concert(2, LocalDate.of(2090,10,10), "stage", LocalTime.of(10, 0), LocalTime.of(10, 0));
 
+    @BeforeEach
+    void stubDataVersion() {
+        // every write increments the data version row
+        AtomicLong dataVersion = new AtomicLong();
+        Mockito.lenient().when(this.concertRepository.findDataVersion()).thenAnswer(invocation -> dataVersion.incrementAndGet());
+        Mockito.lenient().when(this.concertCalendar.getDay()).thenReturn(LocalDate.of(2022, 1, 1));
+    }
+
     @Test
     void getAllConcerts() {
         Mockito.when(this.concertRepository.findAll()).thenReturn(List.of(concertUnderTest1, concertUnderTest2));
@@ -47,13 +90,13 @@ class ConcertServiceTest {
 
     @Test
     void getConcertsByStage() {
-        Mockito.when(this.concertRepository.findByStageContainsIgnoreCase("test")).thenReturn((List.of(concertUnderTest1)));
+        Mockito.when(this.stageIndex.find("test")).thenReturn((List.of(concertUnderTest1)));
         assertEquals(List.of(concertUnderTest1), this.concertService.getConcertsByStage("test"));
     }
 
     @Test
     void getConcertById() {
-        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(concertUnderTest1);
+        Mockito.when(this.concertCache.get(1L)).thenReturn(concertUnderTest1);
         assertEquals(concertUnderTest1, this.concertService.getConcertById(1L));
         assertNotEquals(concertUnderTest1, this.concertService.getConcertById(2L));
     }
@@ -61,35 +104,199 @@ class ConcertServiceTest {
     @Test
     void createNewConcert() throws InvalidPerformerIdException {
         Mockito.when(performerApiService.checkIfPerformerIsValid(1)).thenReturn(true);
+        Mockito.when(this.concertRepository.save(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            Concert saved = invocation.getArgument(0);
+            saved.setId(5L);
+            return saved;
+        });
 
         NewConcertDTO newConcert = new NewConcertDTO(1, LocalDate.of(2020,10,10), "test", LocalTime.of(10, 0), LocalTime.of(10, 0));
         NewConcertDTO newConcert2 = new NewConcertDTO(2, LocalDate.of(2090,10,10), "stage", LocalTime.of(10, 0), LocalTime.of(10, 0));
 
+        ConcertDataVersion before = this.concertService.getDataVersion();
         this.concertService.createNewConcert(newConcert);
         verify(this.concertRepository, times(1)).save(concertUnderTest1);
+        assertEquals(before.getVersion() + 1, this.concertService.getDataVersion().getVersion());
+        assertNotEquals(before.eTag(), this.concertService.getDataVersion().eTag());
+        assertTrue(this.concertService.getDataVersion().getLastModified().isAfter(before.getLastModified()));
+        verify(this.concertStore, times(1)).put(concertUnderTest1);
+        verify(this.eventPublisher, times(1)).publishEvent(ArgumentMatchers.refEq(new ConcertChangedEvent(1, 5L)));
         assertThrows(InvalidPerformerIdException.class, () -> this.concertService.createNewConcert(newConcert2));
     }
 
     @Test
-    void updateConcert() throws ConcertHasReviewsException, InvalidPerformerIdException, ConcertNotFoundException {
-        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(concertUnderTest1);
+    void eTagCountsOnlyAppliedWrites() {
+        Mockito.when(this.concertRepository.findDataVersion()).thenReturn(4L);
+        Mockito.when(this.concertRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of());
+        this.concertService.loadAllConcerts(concert -> { });
+        assertEquals("\"enl-4\"", this.concertService.getDataVersion().eTag());
+
+        // write 6 of this replica commits before the notification of write 5 of another replica arrives
+        this.concertService.concertsChanged(6);
+        ConcertDataVersion ahead = this.concertService.getDataVersion();
+        assertEquals("\"enl-4+6\"", ahead.eTag());
+        assertNotNull(ahead.getBehindSince());
+
+        this.concertService.concertsChanged(5);
+        assertEquals("\"enl-6\"", this.concertService.getDataVersion().eTag());
+        assertNull(this.concertService.getDataVersion().getBehindSince());
+        assertEquals(ahead.getVersion() + 1, this.concertService.getDataVersion().getVersion());
+
+        // a write is counted once
+        this.concertService.concertsChanged(6);
+        assertEquals(ahead.getVersion() + 1, this.concertService.getDataVersion().getVersion());
+    }
+
+    @Test
+    void dataVersionIsMovedOnByConcurrentWrites() throws InterruptedException {
+        List<Thread> writers = new ArrayList<>();
+        for (long dataVersion = 1; dataVersion <= 200; dataVersion++) {
+            long write = dataVersion;
+            Thread writer = new Thread(() -> this.concertService.concertsChanged(write));
+            writer.start();
+            writers.add(writer);
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals("\"0-5k\"", this.concertService.getDataVersion().eTag());
+        assertEquals(200, this.concertService.getDataVersion().getVersion());
+    }
+
+    @Test
+    void rollOverCalendarChangesDataVersion() {
+        Mockito.when(this.concertCalendar.rollOver()).thenReturn(false, true, false);
+
+        long before = this.concertService.getDataVersion().getVersion();
+        this.concertService.rollOverCalendar();
+
+        assertEquals(before + 1, this.concertService.getDataVersion().getVersion());
+    }
+
+    @Test
+    void updateConcert() throws Throwable {
+        Concert stored = new Concert(concertUnderTest1);
+        stored.setId(1L);
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(stored);
 
         UpdateConcertDTO updateConcert = new UpdateConcertDTO(1, 1, LocalDate.now(), "test", LocalTime.of(15, 0), LocalTime.of(15, 0));
         UpdateConcertDTO updateConcert2 = new UpdateConcertDTO(2, 2, LocalDate.now(), "stage", LocalTime.of(15, 0), LocalTime.of(15, 0));
 
+        Mockito.when(this.concertRepository.patch(1L, 0L, Map.of("day", LocalDate.now(),
+                "beginTime", LocalTime.of(15, 0), "endTime", LocalTime.of(15, 0)))).thenReturn(true);
+
         this.concertService.updateConcert(updateConcert);
-        verify(this.concertRepository, times(1)).save(concertUnderTest1);
+        assertEquals(1L, stored.getVersion());
+        verify(this.concertCache, times(1)).invalidate(1L);
+        verify(this.concertStore, times(1)).put(stored);
+        verify(this.eventPublisher, times(1)).publishEvent(ArgumentMatchers.refEq(new ConcertChangedEvent(1, 1L)));
         assertThrows(ConcertNotFoundException.class, () -> this.concertService.updateConcert(updateConcert2));
 
     }
 
+    @Test
+    void updateConcertWithoutReadingRow() throws Throwable {
+        Concert cached = new Concert(1, LocalDate.of(2020, 10, 10), "test", LocalTime.of(10, 0), LocalTime.of(11, 0));
+        cached.setId(1L);
+        cached.setVersion(4);
+        Mockito.when(this.concertStore.get(1L)).thenAnswer(invocation -> new Concert(cached));
+        Mockito.when(this.concertRepository.patch(1L, 4L, Map.of("stage", "arena"))).thenReturn(true);
+
+        // equal values in other instances, as they arrive from JSON
+        this.concertService.updateConcert(new UpdateConcertDTO(1, 1, LocalDate.parse("2020-10-10"), "test",
+                LocalTime.parse("10:00"), LocalTime.parse("11:00")));
+        this.concertService.updateConcert(new UpdateConcertDTO(1, 1, null, "arena", null, null, 4L));
+
+        verify(this.concertRepository, times(1)).patch(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyMap());
+        verify(this.concertRepository, Mockito.never()).findConcertById(ArgumentMatchers.any());
+        verify(this.performerApiService, Mockito.never()).checkIfPerformerIsValid(ArgumentMatchers.anyLong());
+        verify(this.concertStore, times(1)).put(ArgumentMatchers.argThat(concert ->
+                concert.getStage().equals("arena") && concert.getVersion() == 5));
+    }
+
+    @Test
+    void updateConcertConflict() {
+        Concert cached = new Concert(1, LocalDate.of(2020, 10, 10), "test", LocalTime.of(10, 0), LocalTime.of(11, 0));
+        cached.setId(1L);
+        Mockito.when(this.concertStore.get(1L)).thenAnswer(invocation -> new Concert(cached));
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(new Concert(cached));
+        Mockito.when(this.concertRepository.patch(1L, 0L, Map.of("stage", "arena"))).thenReturn(false);
+        Mockito.when(this.concertRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ConcertUpdateConflictException.class, () -> this.concertService.updateConcert(
+                new UpdateConcertDTO(1, 1, null, "arena", null, null)));
+        assertThrows(ConcertUpdateConflictException.class, () -> this.concertService.updateConcert(
+                new UpdateConcertDTO(1, 1, null, "arena", null, null, 3L)));
+        // without a version the row is read and written once more, with a version nothing is written
+        verify(this.concertRepository, times(2)).patch(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyMap());
+        verify(this.concertStore, Mockito.never()).put(ArgumentMatchers.any());
+    }
+
+    @Test
+    void updateConcertWithStaleCalendarIsRetried() throws Throwable {
+        Concert cached = new Concert(1, LocalDate.of(2020, 10, 10), "test", LocalTime.of(10, 0), LocalTime.of(11, 0));
+        cached.setId(1L);
+        cached.setVersion(4);
+        // changed by another replica, the calendar has not heard of it yet
+        Concert stored = new Concert(cached);
+        stored.setDay(LocalDate.of(2020, 10, 11));
+        stored.setVersion(6);
+        Mockito.when(this.concertStore.get(1L)).thenAnswer(invocation -> new Concert(cached));
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(stored);
+        Mockito.when(this.concertRepository.patch(1L, 4L, Map.of("stage", "arena"))).thenReturn(false);
+        Mockito.when(this.concertRepository.patch(1L, 6L, Map.of("stage", "arena"))).thenReturn(true);
+
+        this.concertService.updateConcert(new UpdateConcertDTO(1, 1, null, "arena", null, null));
+
+        verify(this.concertRepository, Mockito.never()).existsById(ArgumentMatchers.any());
+        verify(this.concertStore, times(1)).put(ArgumentMatchers.argThat(concert -> concert.getStage().equals("arena")
+                && concert.getDay().equals(LocalDate.of(2020, 10, 11)) && concert.getVersion() == 7));
+
+        // the client read the version the calendar has, so its copy is stale as well
+        Mockito.when(this.concertRepository.existsById(1L)).thenReturn(true);
+        assertThrows(ConcertUpdateConflictException.class, () -> this.concertService.updateConcert(
+                new UpdateConcertDTO(1, 1, null, "arena", null, null, 4L)));
+    }
+
+    @Test
+    void reloadBeforeDeleteCommitsIsNotCached() throws ConcertNotFoundException {
+        ConcertCache concertCache = new ConcertCache(this.concertRepository, new MockEnvironment());
+        ConcertService concertService = new ConcertService(this.concertRepository, this.performerApiService,
+                this.reviewApiService, this.reviewCleanupRepository, this.entityManager, this.stageIndex,
+                this.concertCalendar, this.concertStore, concertCache, this.eventPublisher, this.transactionManager);
+        Concert stored = new Concert(concertUnderTest1);
+        stored.setId(1L);
+        Mockito.when(this.concertRepository.deleteConcertById(1L)).thenReturn(1);
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(stored);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            concertService.deleteConcert(1L);
+            // another request still reads the row until the delete commits
+            assertEquals(stored, concertService.getConcertById(1L));
+            verify(this.concertStore, Mockito.never()).remove(1L);
+
+            Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(null);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(concertService.getConcertById(1L));
+        verify(this.concertStore, times(1)).remove(1L);
+    }
+
     @Test
     void deleteConcert() throws ConcertNotFoundException {
-        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(concertUnderTest1);
-        Mockito.when(this.reviewApiService.getReviewsOfPerformer(1L)).thenReturn(new ArrayList<>());
+        Mockito.when(this.concertRepository.deleteConcertById(1L)).thenReturn(1);
 
         this.concertService.deleteConcert(1L);
-        verify(this.concertRepository, times(1)).delete(concertUnderTest1);
+        verify(this.reviewCleanupRepository, times(1)).save(ArgumentMatchers.argThat(task -> task.getConcertId() == 1L));
+        verify(this.reviewApiService, Mockito.never()).getReviewsOfConcert(ArgumentMatchers.anyLong());
+        assertThrows(ConcertNotFoundException.class, () -> this.concertService.deleteConcert(2L));
+        verify(this.concertCache, times(1)).invalidate(1L);
+        verify(this.concertStore, times(1)).remove(1L);
+        verify(this.eventPublisher, times(1)).publishEvent(ArgumentMatchers.refEq(new ConcertChangedEvent(1, 1L)));
     }
 
     @Test
@@ -103,14 +310,112 @@ class ConcertServiceTest {
     }
 
     @Test
-    void getConcertsAfterDate() {
-        Mockito.when(this.concertRepository.findByDayAfter(LocalDate.now())).thenReturn(List.of(concertUnderTest2));
-        assertEquals(List.of(concertUnderTest2), this.concertService.getConcertsAfterDate(LocalDate.now()));
+    void getAllConcertsPaged() {
+        Mockito.when(this.concertRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2))).thenReturn(List.of(concertUnderTest1));
+        Mockito.when(this.concertRepository.findByIdGreaterThanOrderByIdAsc(5, PageRequest.ofSize(2))).thenReturn(List.of(concertUnderTest2));
+
+        assertEquals(List.of(concertUnderTest1), this.concertService.getAllConcerts(null, 2));
+        assertEquals(List.of(concertUnderTest2), this.concertService.getAllConcerts(new ConcertCursor(LocalDate.now(), 5), 2));
+    }
+
+    @Test
+    void streamAllConcerts() {
+        Mockito.when(this.concertRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(concertUnderTest1, concertUnderTest2));
+        List<Concert> streamed = new ArrayList<>();
+
+        this.concertService.streamAllConcerts(streamed::add);
+
+        assertEquals(List.of(concertUnderTest1, concertUnderTest2), streamed);
+        verify(this.entityManager, times(1)).detach(concertUnderTest1);
+        verify(this.entityManager, times(1)).detach(concertUnderTest2);
+    }
+
+    @Test
+    void concertCursorRoundTrip() {
+        ConcertCursor cursor = ConcertCursor.decode(new ConcertCursor(LocalDate.of(2022, 6, 1), 42).encode());
+        assertEquals(LocalDate.of(2022, 6, 1), cursor.getDay());
+        assertEquals(42, cursor.getId());
+        assertNull(ConcertCursor.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> ConcertCursor.decode("not a cursor"));
     }
 
     @Test
-    void getConcertsBeforeDate() {
-        Mockito.when(this.concertRepository.findByDayBefore(LocalDate.now())).thenReturn(List.of(concertUnderTest1));
-        assertEquals(List.of(concertUnderTest1), this.concertService.getConcertsBeforeDate(LocalDate.now()));
+    void createNewConcerts() {
+        Mockito.when(performerApiService.checkIfPerformersAreValid(Set.of(1L, 2L))).thenReturn(Map.of(1L, true, 2L, false));
+
+        NewConcertDTO newConcert = new NewConcertDTO(1, LocalDate.of(2020,10,10), "test", LocalTime.of(10, 0), LocalTime.of(10, 0));
+        NewConcertDTO newConcert2 = new NewConcertDTO(2, LocalDate.of(2090,10,10), "stage", LocalTime.of(10, 0), LocalTime.of(10, 0));
+
+        Concert expected = new Concert(1, LocalDate.of(2020,10,10), "test", LocalTime.of(10, 0), LocalTime.of(10, 0));
+        Mockito.doAnswer(invocation -> {
+            List<Concert> inserted = invocation.getArgument(0);
+            for (int i = 0; i < inserted.size(); i++) {
+                inserted.get(i).setId(10L + i);
+            }
+            return null;
+        }).when(this.concertRepository).writeAll(ArgumentMatchers.anyList());
+
+        assertEquals(List.of(true, false, true), this.concertService.createNewConcerts(List.of(newConcert, newConcert2, newConcert)));
+        verify(this.concertRepository, times(1)).writeAll(List.of(expected, expected));
+
+        // the check of performer 3 failed
+        NewConcertDTO newConcert3 = new NewConcertDTO(3, LocalDate.of(2090,10,10), "stage", LocalTime.of(10, 0), LocalTime.of(10, 0));
+        Mockito.when(performerApiService.checkIfPerformersAreValid(Set.of(1L, 3L))).thenReturn(Map.of(1L, true));
+        assertEquals(Arrays.asList(true, null), this.concertService.createNewConcerts(List.of(newConcert, newConcert3)));
+        verify(this.eventPublisher, times(1)).publishEvent(ArgumentMatchers.refEq(new ConcertChangedEvent(1, List.of(10L, 11L))));
+    }
+
+    @Test
+    void saveConcerts() {
+        Concert updated = new Concert(concertUnderTest1);
+        updated.setId(3L);
+        Concert inserted = new Concert(concertUnderTest2);
+        Mockito.doAnswer(invocation -> {
+            List<Concert> written = invocation.getArgument(0);
+            written.get(1).setId(4L);
+            return null;
+        }).when(this.concertRepository).writeAll(ArgumentMatchers.anyList());
+
+        this.concertService.saveConcerts(List.of(updated, inserted));
+        verify(this.concertCache, times(1)).invalidate(3L);
+        verify(this.concertStore, times(1)).put(updated);
+        verify(this.concertStore, times(1)).put(inserted);
+        verify(this.eventPublisher, times(1)).publishEvent(ArgumentMatchers.refEq(new ConcertChangedEvent(1, List.of(3L, 4L))));
+
+        this.concertService.saveConcerts(List.of());
+        verify(this.concertRepository, times(1)).writeAll(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    void searchConcerts() {
+        ConcertSearchDTO search = new ConcertSearchDTO("arena", List.of(1L, 2L), LocalDate.of(2022, 1, 1), null, LocalTime.of(18, 0), null);
+        Mockito.when(this.concertRepository.search(ArgumentMatchers.any(), ArgumentMatchers.eq(Sort.by("day", "id")), ArgumentMatchers.eq(10)))
+                .thenReturn(List.of(concertUnderTest2));
+
+        assertEquals(List.of(concertUnderTest2), this.concertService.searchConcerts(search, Sort.by("day"), 10));
+    }
+
+    @Test
+    void getConcertReviewInfo() {
+        Concert cached = new Concert(3, LocalDate.of(2021, 5, 5), "test", LocalTime.of(10, 0), LocalTime.of(11, 0));
+        ConcertReviewInfo stored = new ConcertReviewInfo(LocalDate.of(2022, 6, 6), 4);
+        Mockito.when(this.concertCache.getIfPresent(1L)).thenReturn(cached);
+        Mockito.when(this.concertRepository.findReviewInfoById(2L)).thenReturn(stored);
+
+        ConcertReviewInfo fromCache = this.concertService.getConcertReviewInfo(1L);
+        assertEquals(LocalDate.of(2021, 5, 5), fromCache.getDay());
+        assertEquals(3, fromCache.getPerformerId());
+        verify(this.concertRepository, times(0)).findReviewInfoById(1L);
+        assertSame(stored, this.concertService.getConcertReviewInfo(2L));
+    }
+
+    @Test
+    void performerHasConcerts() throws InvalidPerformerIdException {
+        Mockito.when(this.performerApiService.checkIfPerformerIsValid(1)).thenReturn(true);
+        Mockito.when(this.concertRepository.existsByPerformerId(1)).thenReturn(true);
+
+        assertTrue(this.concertService.performerHasConcerts(1));
+        assertThrows(InvalidPerformerIdException.class, () -> this.concertService.performerHasConcerts(2));
+        verify(this.concertRepository, times(0)).findConcertByPerformerId(1);
     }
-}
\ No newline at end of file
+}
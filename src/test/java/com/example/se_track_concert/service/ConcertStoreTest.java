@@ -0,0 +1,73 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcertStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2022, 7, 1);
+
+    private StageIndex stageIndex;
+    private ConcertCalendar concertCalendar;
+    private ConcertStore concertStore;
+
+    private static Concert concert(long id, LocalDate day, String stage) {
+        Concert concert = new Concert(1, day, stage, LocalTime.of(20, 0), LocalTime.of(21, 0));
+        concert.setId(id);
+        return concert;
+    }
+
+    private static List<Long> ids(List<Concert> concerts) {
+        return concerts.stream().map(Concert::getId).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.stageIndex = new StageIndex();
+        this.concertCalendar = new ConcertCalendar(Clock.fixed(DAY.atTime(12, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        this.concertStore = new ConcertStore(List.of(this.stageIndex, this.concertCalendar));
+        this.concertStore.put(concert(1, DAY.minusDays(1), "Arena"));
+        this.concertStore.put(concert(2, DAY, "Forest Stage"));
+    }
+
+    @Test
+    void putReplacesPreviousVersionInEveryIndex() {
+        this.concertStore.put(concert(2, DAY.plusDays(1), "Tent"));
+
+        assertEquals(List.of(), this.stageIndex.find("forest"));
+        assertEquals(List.of(2L), ids(this.stageIndex.find("tent")));
+        assertEquals(List.of(), this.concertCalendar.today());
+        assertEquals(List.of(2L), ids(this.concertCalendar.future(null, 10)));
+        assertEquals("Tent", this.concertStore.get(2L).getStage());
+        assertEquals(2, this.concertStore.size());
+    }
+
+    @Test
+    void removeRemovesFromEveryIndex() {
+        this.concertStore.remove(1L);
+        this.concertStore.remove(99L);
+
+        assertEquals(List.of(), this.stageIndex.find("arena"));
+        assertEquals(List.of(), this.concertCalendar.past(null, 10));
+        assertNull(this.concertStore.get(1L));
+        assertEquals(Set.of(2L), this.concertStore.ids());
+    }
+
+    @Test
+    void getReturnsCopies() {
+        this.concertStore.get(2L).setStage("changed");
+
+        assertEquals("Forest Stage", this.concertStore.get(2L).getStage());
+        assertEquals("Forest Stage", this.stageIndex.find("forest").get(0).getStage());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.exception.DependencyUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundCallPolicyTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboundCallPolicy policy(MockEnvironment env) {
+        env.setConversionService(new ApplicationConversionService());
+        return new OutboundCallPolicy(env
+                .withProperty("performer.client.timeout", "200ms")
+                .withProperty("performer.client.circuit-breaker.sliding-window-size", "4")
+                .withProperty("performer.client.circuit-breaker.minimum-calls", "4")
+                .withProperty("performer.client.circuit-breaker.wait-in-open-state", "1m"), this.meterRegistry, "performer");
+    }
+
+    @Test
+    void slowCallTimesOut() {
+        OutboundCallPolicy policy = this.policy(new MockEnvironment());
+
+        DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+                () -> policy.call("check-id", () -> Mono.delay(Duration.ofSeconds(5))).block());
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals("performer", e.getService());
+        assertEquals(1, this.meterRegistry.get(OutboundCallMetrics.ERRORS)
+                .tags("operation", "check-id", "exception", "TimeoutException").counter().count());
+    }
+
+    @Test
+    void openCircuitFailsFast() {
+        OutboundCallPolicy policy = this.policy(new MockEnvironment());
+        AtomicInteger requests = new AtomicInteger();
+        WebClientResponseException serverError = WebClientResponseException.create(500, "Internal Server Error", HttpHeaders.EMPTY, null, null);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(WebClientResponseException.class, () -> policy.call("check-id", () -> {
+                requests.incrementAndGet();
+                return Mono.error(serverError);
+            }).block());
+        }
+        DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+                () -> policy.call("check-id", () -> {
+                    requests.incrementAndGet();
+                    return Mono.just(true);
+                }).block());
+
+        assertInstanceOf(CallNotPermittedException.class, e.getCause());
+        assertEquals(CircuitBreaker.State.OPEN, policy.getCircuitBreaker().getState());
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuit() {
+        OutboundCallPolicy policy = this.policy(new MockEnvironment());
+        WebClientResponseException notFound = WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, null, null);
+
+        for (int i = 0; i < 8; i++) {
+            assertThrows(WebClientResponseException.class, () -> policy.call("delete", () -> Mono.error(notFound)).block());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, policy.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void bulkheadRejectsCallsOverLimit() {
+        OutboundCallPolicy policy = this.policy(new MockEnvironment()
+                .withProperty("performer.client.bulkhead.max-concurrent-calls", "1"));
+        Mono<Long> slow = policy.call("check-id", () -> Mono.delay(Duration.ofMillis(100)));
+
+        slow.subscribe();
+        DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+                () -> policy.call("check-id", () -> Mono.just(1L)).block());
+
+        assertInstanceOf(BulkheadFullException.class, e.getCause());
+    }
+
+    @Test
+    void hedgedCallUsesFirstAnswer() {
+        OutboundCallPolicy policy = this.policy(new MockEnvironment()
+                .withProperty("performer.client.hedge-delay", "20ms"));
+        AtomicInteger attempts = new AtomicInteger();
+
+        String answer = policy.hedged("check-id", () -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(150)).thenReturn("first")
+                : Mono.just("second")).block();
+
+        assertEquals("second", answer);
+        assertEquals(2, attempts.get());
+        assertEquals(1, this.meterRegistry.get("concert.outbound.hedges").counter().count());
+    }
+
+    @Test
+    void hedgedCallReportsFailure() {
+        OutboundCallPolicy policy = this.policy(new MockEnvironment()
+                .withProperty("performer.client.hedge-delay", "20ms"));
+        WebClientResponseException serverError = WebClientResponseException.create(500, "Internal Server Error", HttpHeaders.EMPTY, null, null);
+
+        assertThrows(WebClientResponseException.class, () -> policy.hedged("check-id", () -> Mono.error(serverError)).block());
+        assertNull(policy.hedged("check-id", Mono::empty).block());
+    }
+
+    @Test
+    void fastFailureIsNotHedged() throws InterruptedException {
+        OutboundCallPolicy policy = this.policy(new MockEnvironment()
+                .withProperty("performer.client.hedge-delay", "20ms"));
+        WebClientResponseException serverError = WebClientResponseException.create(500, "Internal Server Error", HttpHeaders.EMPTY, null, null);
+        AtomicInteger attempts = new AtomicInteger();
+
+        WebClientResponseException e = assertThrows(WebClientResponseException.class, () -> policy.hedged("check-id", () -> {
+            attempts.incrementAndGet();
+            return Mono.error(serverError);
+        }).block());
+        Thread.sleep(100);
+
+        assertSame(serverError, e);
+        assertEquals(1, attempts.get());
+        assertTrue(this.meterRegistry.find("concert.outbound.hedges").counters().stream().allMatch(hedges -> hedges.count() == 0));
+    }
+
+    @Test
+    void failedHedgeWaitsForFirstAttempt() {
+        OutboundCallPolicy policy = this.policy(new MockEnvironment()
+                .withProperty("performer.client.hedge-delay", "20ms"));
+        WebClientResponseException serverError = WebClientResponseException.create(500, "Internal Server Error", HttpHeaders.EMPTY, null, null);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String answer = policy.hedged("check-id", () -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(100)).thenReturn("first")
+                : Mono.error(serverError)).block();
+
+        assertEquals("first", answer);
+        assertEquals(2, attempts.get());
+    }
+}
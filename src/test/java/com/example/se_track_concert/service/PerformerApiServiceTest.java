@@ -0,0 +1,103 @@
+package com.example.se_track_concert.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerformerApiServiceTest {
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PerformerApiService performerApiService;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("performer.api", "http://performer/")
+                .withProperty("performer.cache.maximum-size", "100");
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+            this.requests.incrementAndGet();
+            boolean valid = request.url().getQuery().equals("id=1");
+            if (request.url().getQuery().equals("id=3")) {
+                return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+            }
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(Boolean.toString(valid))
+                    .build()).delayElement(Duration.ofMillis(50));
+        }).build();
+        this.performerApiService = new PerformerApiService(env, webClient, this.meterRegistry);
+    }
+
+    @Test
+    void checkIfPerformerIsValidIsCached() {
+        assertTrue(this.performerApiService.checkIfPerformerIsValid(1));
+        assertTrue(this.performerApiService.checkIfPerformerIsValid(1));
+        assertFalse(this.performerApiService.checkIfPerformerIsValid(2));
+        assertFalse(this.performerApiService.checkIfPerformerIsValid(2));
+
+        assertEquals(2, this.requests.get());
+        assertEquals(2, this.performerApiService.getValidityCacheStats().hitCount());
+        assertEquals(2, this.performerApiService.getValidityCacheStats().missCount());
+        assertEquals(2, this.meterRegistry.get(OutboundCallMetrics.TIMER)
+                .tags("service", "performer", "operation", "check-id", "outcome", "SUCCESS").timer().count());
+    }
+
+    @Test
+    void concurrentChecksShareOneRequest() {
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            checks.add(CompletableFuture.supplyAsync(() -> this.performerApiService.checkIfPerformerIsValid(1)));
+        }
+        checks.forEach(check -> assertTrue(check.join()));
+
+        assertEquals(1, this.requests.get());
+    }
+
+    @Test
+    void bulkCheckStaysWithinBulkhead() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("performer.api", "http://performer/")
+                .withProperty("performer.client.bulkhead.max-concurrent-calls", "4");
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("true")
+                    .build()).delayElement(Duration.ofMillis(20)).doOnNext(response -> inFlight.decrementAndGet());
+        }).build();
+        PerformerApiService performerApiService = new PerformerApiService(env, webClient, this.meterRegistry);
+        List<Long> performerIds = LongStream.rangeClosed(1, 30).boxed().toList();
+
+        Map<Long, Boolean> validity = performerApiService.checkIfPerformersAreValid(performerIds);
+
+        assertEquals(performerIds.stream().collect(Collectors.toMap(id -> id, id -> true)), validity);
+        assertTrue(maxInFlight.get() <= 4, "requests in flight: " + maxInFlight.get());
+    }
+
+    @Test
+    void failedCheckIsLeftOutOfTheOthers() {
+        assertEquals(Map.of(1L, true, 2L, false), this.performerApiService.checkIfPerformersAreValid(List.of(1L, 2L, 3L)));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.controller.DTO.NewConcertDTO;
+import com.example.se_track_concert.controller.DTO.UpdateConcertDTO;
+import com.example.se_track_concert.exception.ConcertHasReviewsException;
+import com.example.se_track_concert.exception.ConcertNotFoundException;
+import com.example.se_track_concert.exception.ConcertUpdateConflictException;
+import com.example.se_track_concert.exception.InvalidPerformerIdException;
+import com.example.se_track_concert.model.Concert;
+import com.example.se_track_concert.model.ReviewCleanupTask;
+import com.example.se_track_concert.repository.ReactiveConcertRepository;
+import com.example.se_track_concert.repository.ReactiveReviewCleanupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveConcertServiceTest {
+
+    // 23:30 in UTC is already the next day in the festival time zone
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2022-07-01T23:30:00Z"), ZoneId.of("Europe/Amsterdam"));
+
+    private ReactiveConcertService concertService;
+
+    @Mock
+    private ReactiveConcertRepository concertRepository;
+    @Mock
+    private ReactiveReviewCleanupRepository reviewCleanupRepository;
+    @Mock
+    private TransactionalOperator transactionalOperator;
+    @Mock
+    private PerformerApiService performerApiService;
+    @Mock
+    private ReviewApiService reviewApiService;
+
+    @BeforeEach
+    void setUp() {
+        this.concertService = new ReactiveConcertService(this.concertRepository, this.reviewCleanupRepository,
+                this.performerApiService, this.reviewApiService, this.transactionalOperator, CLOCK);
+    }
+
+    private Concert concert() {
+        Concert concert = new Concert(1, LocalDate.of(2020, 10, 10), "test", LocalTime.of(10, 0), LocalTime.of(11, 0));
+        concert.setId(1L);
+        return concert;
+    }
+
+    private static Throwable errorOf(Mono<?> mono) {
+        return Exceptions.unwrap(assertThrows(RuntimeException.class, mono::block));
+    }
+
+    @Test
+    void getAllConcerts() {
+        Mockito.when(this.concertRepository.findAllByOrderByIdAsc()).thenReturn(Flux.just(this.concert()));
+        assertEquals(List.of(this.concert()), this.concertService.getAllConcerts().collectList().block());
+    }
+
+    @Test
+    void pastAndFutureConcertsAreRelativeToTheFestivalDay() {
+        Mockito.when(this.concertRepository.findByDayBeforeOrderByDayAscIdAsc(LocalDate.of(2022, 7, 2))).thenReturn(Flux.just(this.concert()));
+        Mockito.when(this.concertRepository.findByDayAfterOrderByDayAscIdAsc(LocalDate.of(2022, 7, 2))).thenReturn(Flux.empty());
+        Mockito.when(this.concertRepository.findByDayOrderByIdAsc(LocalDate.of(2022, 7, 2))).thenReturn(Flux.empty());
+
+        assertEquals(List.of(this.concert()), this.concertService.getPastConcerts().collectList().block());
+        assertEquals(List.of(), this.concertService.getTodayConcerts().collectList().block());
+        assertEquals(List.of(), this.concertService.getFutureConcerts().collectList().block());
+    }
+
+    @Test
+    void createNewConcert() {
+        Mockito.when(this.performerApiService.isPerformerValid(1)).thenReturn(Mono.just(true));
+        Mockito.when(this.performerApiService.isPerformerValid(2)).thenReturn(Mono.just(false));
+        Mockito.when(this.concertRepository.save(Mockito.any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        NewConcertDTO newConcert = new NewConcertDTO(1, LocalDate.of(2020, 10, 10), "test", LocalTime.of(10, 0), LocalTime.of(11, 0));
+        NewConcertDTO newConcert2 = new NewConcertDTO(2, LocalDate.of(2020, 10, 10), "test", LocalTime.of(10, 0), LocalTime.of(11, 0));
+
+        assertEquals(this.concert(), this.concertService.createNewConcert(newConcert).block());
+        assertInstanceOf(InvalidPerformerIdException.class, errorOf(this.concertService.createNewConcert(newConcert2)));
+    }
+
+    @Test
+    void updateConcert() {
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenAnswer(invocation -> Mono.just(this.concert()));
+        Mockito.when(this.concertRepository.findConcertById(2L)).thenReturn(Mono.empty());
+        Mockito.when(this.concertRepository.patch(1L, 0L, Map.of("stage", "arena"))).thenReturn(Mono.just(true));
+
+        UpdateConcertDTO updateStage = new UpdateConcertDTO(1, 0, null, "arena", null, null);
+        Concert updated = this.concertService.updateConcert(updateStage).block();
+        assertEquals("arena", updated.getStage());
+        assertEquals(1L, updated.getVersion());
+        // nothing changes, nothing is written
+        this.concertService.updateConcert(new UpdateConcertDTO(1, 1, null, "test", null, null)).block();
+        verify(this.concertRepository, times(1)).patch(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyMap());
+        verify(this.concertRepository, never()).save(Mockito.any());
+
+        UpdateConcertDTO unknownConcert = new UpdateConcertDTO(2, 0, null, "arena", null, null);
+        assertInstanceOf(ConcertNotFoundException.class, errorOf(this.concertService.updateConcert(unknownConcert)));
+    }
+
+    @Test
+    void updateConcertGuardedByVersion() {
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenAnswer(invocation -> Mono.just(this.concert()));
+        Mockito.when(this.concertRepository.patch(1L, 0L, Map.of("stage", "arena"))).thenReturn(Mono.just(false));
+        Mockito.when(this.concertRepository.existsById(1L)).thenReturn(Mono.just(true), Mono.just(true), Mono.just(false));
+
+        // changed by someone else between reading and writing: with a version that is a conflict, without the
+        // update is read and written once more
+        assertInstanceOf(ConcertUpdateConflictException.class, errorOf(this.concertService.updateConcert(
+                new UpdateConcertDTO(1, 1, null, "arena", null, null, 0L))));
+        verify(this.concertRepository, times(1)).patch(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyMap());
+        assertInstanceOf(ConcertUpdateConflictException.class, errorOf(this.concertService.updateConcert(
+                new UpdateConcertDTO(1, 1, null, "arena", null, null))));
+        verify(this.concertRepository, times(3)).patch(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyMap());
+        // deleted between reading and writing
+        assertInstanceOf(ConcertNotFoundException.class, errorOf(this.concertService.updateConcert(
+                new UpdateConcertDTO(1, 1, null, "arena", null, null, 0L))));
+        assertInstanceOf(ConcertUpdateConflictException.class, errorOf(this.concertService.updateConcert(
+                new UpdateConcertDTO(1, 1, null, "arena", null, null, 3L))));
+    }
+
+    @Test
+    void updateConcertPerformerWithReviews() {
+        Mockito.when(this.concertRepository.findConcertById(1L)).thenReturn(Mono.just(this.concert()));
+        Mockito.when(this.performerApiService.isPerformerValid(3)).thenReturn(Mono.just(true));
+        Mockito.when(this.reviewApiService.concertHasReviews(1L)).thenReturn(Mono.just(true));
+
+        UpdateConcertDTO changePerformer = new UpdateConcertDTO(1, 3, null, null, null, null);
+        assertInstanceOf(ConcertHasReviewsException.class, errorOf(this.concertService.updateConcert(changePerformer)));
+        verify(this.concertRepository, never()).patch(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyMap());
+    }
+
+    @Test
+    void deleteConcert() {
+        List<String> steps = new ArrayList<>();
+        Mockito.when(this.transactionalOperator.transactional(Mockito.<Mono<Void>>any())).thenAnswer(invocation ->
+                Mono.fromRunnable(() -> steps.add("begin"))
+                        .then(invocation.<Mono<Void>>getArgument(0))
+                        .doOnSuccess(done -> steps.add("commit")));
+        Mockito.when(this.concertRepository.deleteConcertById(1L)).thenReturn(Mono.fromSupplier(() -> {
+            steps.add("delete concert");
+            return 1;
+        }));
+        Mockito.when(this.concertRepository.deleteConcertById(2L)).thenReturn(Mono.just(0));
+        Mockito.when(this.reviewCleanupRepository.save(Mockito.any())).thenAnswer(invocation -> {
+            steps.add("queue reviews of concert " + invocation.<ReviewCleanupTask>getArgument(0).getConcertId());
+            return Mono.just(invocation.getArgument(0));
+        });
+
+        this.concertService.deleteConcert(1L).block();
+        assertEquals(List.of("begin", "delete concert", "queue reviews of concert 1", "commit"), steps);
+        verify(this.reviewApiService, never()).reviewIdsOfConcert(Mockito.anyLong());
+        assertInstanceOf(ConcertNotFoundException.class, errorOf(this.concertService.deleteConcert(2L)));
+        verify(this.reviewCleanupRepository, times(1)).save(Mockito.any());
+    }
+
+    @Test
+    void getConcertsByPerformerId() {
+        Mockito.when(this.performerApiService.isPerformerValid(1)).thenReturn(Mono.just(true));
+        Mockito.when(this.performerApiService.isPerformerValid(2)).thenReturn(Mono.just(false));
+        Mockito.when(this.concertRepository.findConcertByPerformerId(1L)).thenReturn(Flux.just(this.concert()));
+
+        assertEquals(1, this.concertService.getConcertsByPerformerId(1L).count().block());
+        assertInstanceOf(InvalidPerformerIdException.class, errorOf(this.concertService.getConcertsByPerformerId(2L).collectList()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.exception.ReviewDeletionException;
+import com.example.se_track_concert.model.ReviewCleanupTask;
+import com.example.se_track_concert.repository.ReactiveReviewCleanupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReviewCleanupDispatcherTest {
+
+    private static final Instant NOW = Instant.parse("2022-07-01T12:00:00Z");
+    private static final Instant LEASE_END = NOW.plus(Duration.ofMinutes(1));
+
+    @Mock
+    private ReactiveReviewCleanupRepository reviewCleanupRepository;
+    @Mock
+    private ReviewApiService reviewApiService;
+
+    private ReactiveReviewCleanupDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment env = new MockEnvironment().withProperty("review.cleanup.batch-size", "3");
+        this.dispatcher = new ReactiveReviewCleanupDispatcher(this.reviewCleanupRepository, this.reviewApiService, env,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void dueTasksAreDeletedOrRetriedWithBackoff() {
+        Mockito.when(this.reviewCleanupRepository.findDue(NOW, 3)).thenReturn(Flux.just(task(1, 10, 0), task(2, 20, 2), task(3, 30, 0)));
+        Mockito.when(this.reviewCleanupRepository.claim(1, 0, LEASE_END)).thenReturn(Mono.just(1));
+        Mockito.when(this.reviewCleanupRepository.claim(2, 2, LEASE_END)).thenReturn(Mono.just(1));
+        // claimed by another replica
+        Mockito.when(this.reviewCleanupRepository.claim(3, 0, LEASE_END)).thenReturn(Mono.just(0));
+        Mockito.when(this.reviewApiService.reviewIdsOfConcert(10)).thenReturn(Mono.just(List.of("a", "b")));
+        Mockito.when(this.reviewApiService.reviewIdsOfConcert(20)).thenReturn(Mono.just(List.of("c")));
+        Mockito.when(this.reviewApiService.removeReviews(List.of("a", "b"))).thenReturn(Mono.just(2));
+        Mockito.when(this.reviewApiService.removeReviews(List.of("c"))).thenReturn(Mono.error(new ReviewDeletionException(List.of("c"))));
+        Mockito.when(this.reviewCleanupRepository.deleteById(1L)).thenReturn(Mono.empty());
+        Mockito.when(this.reviewCleanupRepository.retryLater(ArgumentMatchers.eq(2L), ArgumentMatchers.eq(NOW.plusSeconds(20)), ArgumentMatchers.any()))
+                .thenReturn(Mono.just(1));
+
+        assertEquals(3, this.dispatcher.dispatchBatch().block());
+
+        verify(this.reviewCleanupRepository).deleteById(1L);
+        verify(this.reviewCleanupRepository, never()).deleteById(2L);
+        verify(this.reviewApiService, times(1)).recordReviewsOfDeletedConcert(ArgumentMatchers.anyInt());
+        verify(this.reviewApiService).recordReviewsOfDeletedConcert(2);
+        verify(this.reviewApiService, never()).reviewIdsOfConcert(30);
+    }
+
+    private static ReviewCleanupTask task(long id, long concertId, int attempts) {
+        ReviewCleanupTask task = new ReviewCleanupTask(concertId, NOW);
+        ReflectionTestUtils.setField(task, "id", id);
+        ReflectionTestUtils.setField(task, "attempts", attempts);
+        return task;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.exception.ReviewDeletionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.example.se_track_concert.config.DownstreamClientConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewApiServiceTest {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReviewApiService reviewApiService(boolean batchEnabled, Function<String, HttpStatus> deleteStatus) {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("review.api", "http://review/")
+                .withProperty("review.delete.concurrency", "4")
+                .withProperty("review.delete.batch-enabled", Boolean.toString(batchEnabled));
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+            if (request.method() == HttpMethod.POST) {
+                this.batchRequests.incrementAndGet();
+                return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+            }
+            this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+            HttpStatus status = deleteStatus.apply(request.url().getQuery().substring("reviewId=".length()));
+            return Mono.just(ClientResponse.create(status).build())
+                    .delayElement(Duration.ofMillis(20))
+                    .doOnNext(response -> this.inFlight.decrementAndGet());
+        }).build();
+        return new ReviewApiService(env, webClient, this.meterRegistry);
+    }
+
+    @Test
+    void deleteReviewsWithBoundedConcurrency() throws ReviewDeletionException {
+        ReviewApiService reviewApiService = this.reviewApiService(false, reviewId -> HttpStatus.OK);
+
+        assertEquals(20, reviewApiService.deleteReviews(List.of(
+                "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "16", "17", "18", "19", "20")));
+        assertTrue(this.maxInFlight.get() > 1);
+        assertTrue(this.maxInFlight.get() <= 4);
+        assertEquals(0, this.batchRequests.get());
+        assertEquals(20, this.meterRegistry.get(OutboundCallMetrics.TIMER)
+                .tags("service", "review", "operation", "delete", "outcome", "SUCCESS").timer().count());
+        // recorded per concert by the cleanup dispatchers
+        assertEquals(0, this.meterRegistry.get("concert.reviews.deleted").summary().count());
+    }
+
+    @Test
+    void deleteReviewsAggregatesFailures() {
+        ReviewApiService reviewApiService = this.reviewApiService(false,
+                reviewId -> reviewId.equals("2") || reviewId.equals("4") ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK);
+
+        ReviewDeletionException e = assertThrows(ReviewDeletionException.class,
+                () -> reviewApiService.deleteReviews(List.of("1", "2", "3", "4", "5")));
+        assertEquals(List.of("2", "4"), e.getFailedReviewIds().stream().sorted().toList());
+        assertEquals(2, this.meterRegistry.get(OutboundCallMetrics.ERRORS)
+                .tags("service", "review", "operation", "delete", "status", "500").counter().count());
+    }
+
+    @Test
+    void deleteReviewsFallsBackWhenBatchIsUnavailable() throws ReviewDeletionException {
+        ReviewApiService reviewApiService = this.reviewApiService(true,
+                reviewId -> reviewId.equals("3") ? HttpStatus.NOT_FOUND : HttpStatus.OK);
+
+        assertEquals(2, reviewApiService.deleteReviews(List.of("1", "2", "3")));
+        assertEquals(2, reviewApiService.deleteReviews(List.of("1", "2", "3")));
+        assertEquals(1, this.batchRequests.get());
+    }
+
+    @Test
+    void reviewsAreReadFromCbor() throws Exception {
+        MockEnvironment env = new MockEnvironment().withProperty("review.api", "http://review/");
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(configurer -> configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR)))
+                .build();
+        byte[] reviews = cborMapper.writeValueAsBytes(List.of(Map.of("id", 5, "rating", 4, "text", "Great show")));
+        List<List<MediaType>> accepted = new CopyOnWriteArrayList<>();
+        WebClient webClient = WebClient.builder()
+                .exchangeStrategies(strategies)
+                .defaultHeaders(headers -> headers.setAccept(DownstreamClientConfig.accept(env)))
+                .exchangeFunction(request -> {
+                    accepted.add(request.headers().getAccept());
+                    return Mono.just(ClientResponse.create(HttpStatus.OK, strategies)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE)
+                            .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(reviews)))
+                            .build());
+                }).build();
+        ReviewApiService reviewApiService = new ReviewApiService(env, webClient, this.meterRegistry);
+
+        assertTrue(reviewApiService.checkIfConcertHasReviews(1));
+        assertEquals(List.of("5"), reviewApiService.getReviewsOfConcert(1));
+        assertEquals(MediaType.APPLICATION_CBOR, accepted.get(0).get(0));
+    }
+
+    @Test
+    void reviewWithoutIdFailsTheLookup() {
+        MockEnvironment env = new MockEnvironment().withProperty("review.api", "http://review/");
+        WebClient webClient = WebClient.builder().exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("[{\"id\":\"5\"},{\"reviewId\":\"6\"}]")
+                .build())).build();
+        ReviewApiService reviewApiService = new ReviewApiService(env, webClient, this.meterRegistry);
+
+        assertThrows(DecodingException.class, () -> reviewApiService.getReviewsOfConcert(1));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.exception.DependencyUnavailableException;
+import com.example.se_track_concert.exception.ReviewDeletionException;
+import com.example.se_track_concert.model.ReviewCleanupTask;
+import com.example.se_track_concert.repository.ReviewCleanupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewCleanupDispatcherTest {
+
+    private static final Instant NOW = Instant.parse("2022-07-01T12:00:00Z");
+    private static final Instant LEASE_END = NOW.plus(Duration.ofMinutes(1));
+
+    @Mock
+    private ReviewCleanupRepository reviewCleanupRepository;
+    @Mock
+    private ReviewApiService reviewApiService;
+
+    private ReviewCleanupDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment env = new MockEnvironment().withProperty("review.cleanup.batch-size", "3");
+        this.dispatcher = new ReviewCleanupDispatcher(this.reviewCleanupRepository, this.reviewApiService, env,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void reviewsOfDueConcertsAreDeletedWithOneCall() throws Throwable {
+        Mockito.when(this.reviewCleanupRepository.findByNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(NOW, PageRequest.ofSize(3)))
+                .thenReturn(List.of(task(1, 10, 0), task(2, 20, 0)));
+        Mockito.when(this.reviewCleanupRepository.claim(ArgumentMatchers.anyLong(), ArgumentMatchers.eq(0), ArgumentMatchers.eq(LEASE_END)))
+                .thenReturn(1);
+        Mockito.when(this.reviewApiService.getReviewsOfConcert(10)).thenReturn(List.of("a", "b"));
+        Mockito.when(this.reviewApiService.getReviewsOfConcert(20)).thenReturn(List.of());
+        Mockito.when(this.reviewApiService.deleteReviews(List.of("a", "b"))).thenReturn(2);
+
+        this.dispatcher.dispatch();
+
+        verify(this.reviewCleanupRepository).deleteDone(List.of(1L, 2L));
+        // one call for both concerts, recorded per concert
+        verify(this.reviewApiService).recordReviewsOfDeletedConcert(2);
+        verify(this.reviewApiService).recordReviewsOfDeletedConcert(0);
+        verify(this.reviewCleanupRepository, never()).retryLater(ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void failedTasksAreRetriedWithBackoff() throws Throwable {
+        Mockito.when(this.reviewCleanupRepository.findByNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(NOW, PageRequest.ofSize(3)))
+                .thenReturn(List.of(task(1, 10, 0), task(2, 20, 2), task(3, 30, 0)));
+        Mockito.when(this.reviewCleanupRepository.claim(1, 0, LEASE_END)).thenReturn(1);
+        Mockito.when(this.reviewCleanupRepository.claim(2, 2, LEASE_END)).thenReturn(1);
+        // claimed by another replica
+        Mockito.when(this.reviewCleanupRepository.claim(3, 0, LEASE_END)).thenReturn(0);
+        Mockito.when(this.reviewApiService.getReviewsOfConcert(10)).thenReturn(List.of("a"));
+        Mockito.when(this.reviewApiService.getReviewsOfConcert(20)).thenThrow(new DependencyUnavailableException("review", null));
+        Mockito.when(this.reviewApiService.deleteReviews(List.of("a"))).thenThrow(new ReviewDeletionException(List.of("a")));
+
+        assertEquals(3, this.dispatcher.dispatchBatch());
+
+        verify(this.reviewCleanupRepository).retryLater(1L, NOW.plusSeconds(5), "Could not delete all reviews of concert 10");
+        verify(this.reviewCleanupRepository).retryLater(ArgumentMatchers.eq(2L), ArgumentMatchers.eq(NOW.plusSeconds(20)), ArgumentMatchers.anyString());
+        verify(this.reviewCleanupRepository, never()).deleteDone(ArgumentMatchers.any());
+        verify(this.reviewApiService, never()).recordReviewsOfDeletedConcert(ArgumentMatchers.anyInt());
+        verify(this.reviewApiService, never()).getReviewsOfConcert(30);
+    }
+
+    private static ReviewCleanupTask task(long id, long concertId, int attempts) {
+        ReviewCleanupTask task = new ReviewCleanupTask(concertId, NOW);
+        ReflectionTestUtils.setField(task, "id", id);
+        ReflectionTestUtils.setField(task, "attempts", attempts);
+        return task;
+    }
+}
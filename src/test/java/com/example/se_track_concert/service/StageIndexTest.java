@@ -0,0 +1,78 @@
+package com.example.se_track_concert.service;
+
+import com.example.se_track_concert.model.Concert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageIndexTest {
+
+    private StageIndex stageIndex;
+    private ConcertStore concertStore;
+
+    private static Concert concert(long id, String stage) {
+        Concert concert = new Concert(1, LocalDate.of(2022, 7, 1), stage, LocalTime.of(20, 0), LocalTime.of(21, 0));
+        concert.setId(id);
+        return concert;
+    }
+
+    private static List<Long> ids(List<Concert> concerts) {
+        return concerts.stream().map(Concert::getId).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.stageIndex = new StageIndex();
+        this.concertStore = new ConcertStore(List.of(this.stageIndex));
+        this.concertStore.put(concert(3, "Main Arena"));
+        this.concertStore.put(concert(1, "Arena"));
+        this.concertStore.put(concert(2, "Forest Stage"));
+        this.concertStore.put(concert(4, "arena"));
+    }
+
+    @Test
+    void find() {
+        assertEquals(List.of(1L, 3L, 4L), ids(this.stageIndex.find("ARENA")));
+        assertEquals(List.of(1L, 3L, 4L), ids(this.stageIndex.find("ar")));
+        assertEquals(List.of(2L), ids(this.stageIndex.find("st stage")));
+        assertEquals(List.of(), this.stageIndex.find("tent"));
+        assertEquals(4, this.stageIndex.find("").size());
+    }
+
+    @Test
+    void findReturnsCopies() {
+        this.stageIndex.find("forest").get(0).setStage("changed");
+        assertEquals("Forest Stage", this.stageIndex.find("forest").get(0).getStage());
+    }
+
+    @Test
+    void putReplacesPreviousVersion() {
+        this.concertStore.put(concert(2, "Tent"));
+
+        assertEquals(List.of(), this.stageIndex.find("forest"));
+        assertEquals(List.of(2L), ids(this.stageIndex.find("tent")));
+        assertEquals(4, this.concertStore.size());
+    }
+
+    @Test
+    void remove() {
+        this.concertStore.remove(2L);
+        this.concertStore.remove(99L);
+
+        assertEquals(List.of(), this.stageIndex.find("forest"));
+        assertEquals(List.of(), this.stageIndex.suggest("for", 10));
+        assertEquals(3, this.concertStore.size());
+    }
+
+    @Test
+    void suggest() {
+        assertEquals(List.of("Arena", "Main Arena"), this.stageIndex.suggest("are", 10));
+        assertEquals(List.of("Arena"), this.stageIndex.suggest("a", 1));
+        assertEquals(List.of("Forest Stage"), this.stageIndex.suggest("fo", 10));
+    }
+}